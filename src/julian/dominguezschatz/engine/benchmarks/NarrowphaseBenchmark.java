@@ -0,0 +1,177 @@
+package julian.dominguezschatz.engine.benchmarks;
+
+import julian.dominguezschatz.engine.models.Body;
+import julian.dominguezschatz.engine.models.BodyPair;
+import julian.dominguezschatz.engine.models.CollisionBatch;
+import julian.dominguezschatz.engine.models.PairTable;
+import julian.dominguezschatz.engine.models.World;
+import julian.dominguezschatz.engine.models.rules.collision.CollisionRule;
+import julian.dominguezschatz.engine.models.rules.collision.GJKCollisionRule;
+import julian.dominguezschatz.engine.models.rules.collision.SATDiscreteCollisionRule;
+
+import java.awt.geom.Path2D;
+import java.util.Random;
+
+/**
+ * Class: NarrowphaseBenchmark
+ * Author: Julian Dominguez-Schatz
+ * Date: 2026-10-17
+ * Description: Compares the throughput of the SAT and GJK collision rules on pairs of regular polygons with
+ * increasing numbers of vertices, testing the pairs both one at a time and as a batch. About half of the pairs
+ * overlap. As in a world, each pair is tested into its own result, so both ways can try the axis that last
+ * separated the pair first.
+ *
+ * Usage: NarrowphaseBenchmark [pairs] [rounds]
+ */
+public class NarrowphaseBenchmark {
+
+    // the defaults used when no arguments are given
+    private static final int DEFAULT_PAIR_COUNT = 2000;
+    private static final int DEFAULT_ROUND_COUNT = 20;
+
+    // the vertex counts of the polygons tested
+    private static final int[] VERTEX_COUNTS = {3, 4, 8, 16, 32, 64, 128};
+
+    // the radius of every polygon, and the size of the region the polygons are placed in
+    private static final double RADIUS = 10;
+    private static final double REGION_SIZE = 40;
+
+    // the seed used to place the polygons, so that runs are comparable
+    private static final long SEED = 1;
+
+    public static void main(String[] args) {
+        int pairCount = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PAIR_COUNT;
+        int roundCount = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_ROUND_COUNT;
+
+        System.out.printf("%8s %12s %12s %12s %12s %10s%n", "vertices", "SAT ns/test", "SAT batch", "GJK ns/test",
+                "GJK batch", "collisions");
+        for (int vertexCount : VERTEX_COUNTS) {
+            BodyPair[] pairs = createPairs(createBodies(vertexCount, pairCount * 2));
+            CollisionBatch batch = new CollisionBatch();
+
+            SATDiscreteCollisionRule satRule = new SATDiscreteCollisionRule();
+            GJKCollisionRule gjkRule = new GJKCollisionRule();
+
+            // warm up both rules before timing either
+            run(satRule, pairs, roundCount);
+            run(gjkRule, pairs, roundCount);
+            runBatch(satRule, pairs, batch, roundCount);
+            runBatch(gjkRule, pairs, batch, roundCount);
+
+            long start = System.nanoTime();
+            int collisions = run(satRule, pairs, roundCount);
+            double satTime = (double) (System.nanoTime() - start) / (pairCount * roundCount);
+
+            start = System.nanoTime();
+            int satBatchCollisions = runBatch(satRule, pairs, batch, roundCount);
+            double satBatchTime = (double) (System.nanoTime() - start) / (pairCount * roundCount);
+
+            start = System.nanoTime();
+            int gjkCollisions = run(gjkRule, pairs, roundCount);
+            double gjkTime = (double) (System.nanoTime() - start) / (pairCount * roundCount);
+
+            start = System.nanoTime();
+            int gjkBatchCollisions = runBatch(gjkRule, pairs, batch, roundCount);
+            double gjkBatchTime = (double) (System.nanoTime() - start) / (pairCount * roundCount);
+
+            if (collisions != gjkCollisions) {
+                System.out.printf("warning: SAT found %d collisions, but GJK found %d%n", collisions, gjkCollisions);
+            }
+            if (collisions != satBatchCollisions || gjkCollisions != gjkBatchCollisions) {
+                System.out.println("warning: the batched tests found a different number of collisions");
+            }
+            System.out.printf("%8d %12.1f %12.1f %12.1f %12.1f %10d%n", vertexCount, satTime, satBatchTime, gjkTime,
+                    gjkBatchTime, collisions / roundCount);
+        }
+    }
+
+    /**
+     * Tests each pair for a collision, one at a time.
+     *
+     * @param rule the rule to test with
+     * @param pairs the pairs to test
+     * @param roundCount the number of times to test every pair
+     * @return the number of collisions found
+     */
+    private static int run(CollisionRule rule, BodyPair[] pairs, int roundCount) {
+        int collisions = 0;
+        for (int round = 0; round < roundCount; round++) {
+            for (BodyPair pair : pairs) {
+                if (rule.isCollision(pair.getFirst(), pair.getSecond(), pair.getResult())) {
+                    collisions++;
+                }
+            }
+        }
+        return collisions;
+    }
+
+    /**
+     * Tests every pair for a collision as a single batch.
+     *
+     * @param rule the rule to test with
+     * @param pairs the pairs to test
+     * @param batch the batch used to group the pairs
+     * @param roundCount the number of times to test the batch
+     * @return the number of collisions found
+     */
+    private static int runBatch(CollisionRule rule, BodyPair[] pairs, CollisionBatch batch, int roundCount) {
+        int collisions = 0;
+        for (int round = 0; round < roundCount; round++) {
+            collisions += rule.isCollision(pairs, pairs.length, batch);
+        }
+        return collisions;
+    }
+
+    /**
+     * Pairs each consecutive two bodies. The bodies are added to a world only so that they have ids to key their
+     * pairs by; the world is never stepped.
+     *
+     * @param bodies the bodies to pair
+     * @return the pairs
+     */
+    private static BodyPair[] createPairs(Body[] bodies) {
+        World world = new World(REGION_SIZE + 2 * RADIUS, REGION_SIZE + 2 * RADIUS);
+        for (Body body : bodies) {
+            world.addBody(body);
+        }
+
+        PairTable pairTable = new PairTable();
+        BodyPair[] pairs = new BodyPair[bodies.length / 2];
+        for (int i = 0; i < pairs.length; i++) {
+            pairs[i] = pairTable.getOrCreate(bodies[i * 2], bodies[i * 2 + 1]);
+        }
+        return pairs;
+    }
+
+    /**
+     * Creates bodies with regular polygon shapes, each rotated and placed randomly.
+     *
+     * @param vertexCount the number of vertices of each polygon
+     * @param count the number of bodies to create
+     * @return the bodies created
+     */
+    private static Body[] createBodies(int vertexCount, int count) {
+        Random random = new Random(SEED);
+        Body[] bodies = new Body[count];
+        for (int i = 0; i < count; i++) {
+            double rotation = random.nextDouble() * 2 * Math.PI;
+
+            Path2D.Double shape = new Path2D.Double();
+            for (int vertex = 0; vertex < vertexCount; vertex++) {
+                double angle = rotation + 2 * Math.PI * vertex / vertexCount;
+                if (vertex == 0) {
+                    shape.moveTo(RADIUS * Math.cos(angle), RADIUS * Math.sin(angle));
+                } else {
+                    shape.lineTo(RADIUS * Math.cos(angle), RADIUS * Math.sin(angle));
+                }
+            }
+            shape.closePath();
+
+            bodies[i] = new Body.Builder()
+                    .setShape(shape)
+                    .setPosition(random.nextDouble() * REGION_SIZE, random.nextDouble() * REGION_SIZE)
+                    .build();
+        }
+        return bodies;
+    }
+}
@@ -0,0 +1,148 @@
+package julian.dominguezschatz.engine.benchmarks;
+
+import julian.dominguezschatz.engine.models.Body;
+import julian.dominguezschatz.engine.models.Material;
+import julian.dominguezschatz.engine.models.World;
+import julian.dominguezschatz.engine.models.rules.solver.SequentialImpulseSolverRule;
+import julian.dominguezschatz.engine.utils.Vector2D;
+
+import java.awt.Rectangle;
+import java.util.ArrayList;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Class: SolverBenchmark
+ * Author: Julian Dominguez-Schatz
+ * Date: 2026-10-17
+ * Description: Measures how the contact solver scales with the number of threads on a single large island: a
+ * pyramid of boxes resting on the ground, with sleeping disabled so that every box stays simulated. The pyramid is
+ * solved once on the stepping thread without a pool, then with the contact graph coloured and shared between pools of
+ * 1 to N threads. Each coloured run also reports a hash of the final state, which should not depend on the number of
+ * threads.
+ *
+ * Only the solver runs on the pool, so the time spent finding pairs and testing them limits the speedup of a whole
+ * step.
+ *
+ * Usage: SolverBenchmark [base width] [steps] [max threads]
+ */
+public class SolverBenchmark {
+
+    // the defaults used when no arguments are given
+    private static final int DEFAULT_BASE_WIDTH = 60;
+    private static final int DEFAULT_STEP_COUNT = 200;
+
+    // the number of steps run before timing, so that the pyramid settles and the code is compiled
+    private static final int WARM_UP_STEP_COUNT = 100;
+
+    // the size of each box, and the duration of each step in milliseconds
+    private static final int BOX_SIZE = 10;
+    private static final double STEP_TIME = 1000.0 / 60;
+
+    // the downward force on each box
+    private static final double GRAVITY = 200;
+
+    public static void main(String[] args) {
+        int baseWidth = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_BASE_WIDTH;
+        int stepCount = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_STEP_COUNT;
+        int maxThreads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+
+        System.out.printf("%d boxes, %d steps%n", baseWidth * (baseWidth + 1) / 2, stepCount);
+        System.out.printf("%8s %12s %18s %10s%n", "threads", "ms/step", "state hash", "speedup");
+
+        run(baseWidth, stepCount, 0);
+        System.out.println();
+        double singleThreadTime = 0;
+        for (int threads = 1; threads <= maxThreads; threads++) {
+            double time = run(baseWidth, stepCount, threads);
+            if (threads == 1) {
+                singleThreadTime = time;
+            }
+            System.out.printf(" %10.2f%n", singleThreadTime / time);
+        }
+    }
+
+    /**
+     * Builds the pyramid, steps it, and prints the time of a step and the final state hash.
+     *
+     * @param baseWidth the number of boxes in the bottom row of the pyramid
+     * @param stepCount the number of steps to time
+     * @param threads the number of threads to solve on, or 0 to solve without a pool
+     * @return the average time of a step, in milliseconds
+     */
+    private static double run(int baseWidth, int stepCount, int threads) {
+        World world = new World(baseWidth * BOX_SIZE * 2, baseWidth * BOX_SIZE * 2);
+        world.setSleepingAllowed(false);
+
+        ForkJoinPool pool = threads > 0 ? new ForkJoinPool(threads) : null;
+        SequentialImpulseSolverRule solverRule = new SequentialImpulseSolverRule();
+        solverRule.setPool(pool);
+        world.setSolverRule(solverRule);
+
+        ArrayList<Body> boxes = createPyramid(world, baseWidth);
+        for (int step = 0; step < WARM_UP_STEP_COUNT; step++) {
+            world.step(STEP_TIME);
+        }
+
+        long start = System.nanoTime();
+        for (int step = 0; step < stepCount; step++) {
+            world.step(STEP_TIME);
+        }
+        double time = (System.nanoTime() - start) / 1e6 / stepCount;
+
+        if (pool != null) {
+            pool.shutdown();
+        }
+
+        System.out.printf("%8s %12.3f %18x", threads == 0 ? "none" : String.valueOf(threads), time, hash(boxes));
+        return time;
+    }
+
+    /**
+     * Adds a pyramid of boxes standing on a static floor to a world.
+     *
+     * @param world the world to add the pyramid to
+     * @param baseWidth the number of boxes in the bottom row
+     * @return the boxes of the pyramid
+     */
+    private static ArrayList<Body> createPyramid(World world, int baseWidth) {
+        // without friction the boxes slide apart instead of settling
+        Material material = new Material(0, 1, 0.2);
+        double floorY = world.getHeight() - BOX_SIZE;
+        world.addBody(new Body.Builder()
+                .setMass(Body.INFINITE_MASS)
+                .setMaterial(material)
+                .setShape(new Rectangle(0, 0, (int) world.getWidth(), BOX_SIZE))
+                .setPosition(0, floorY)
+                .build());
+
+        ArrayList<Body> boxes = new ArrayList<>();
+        for (int row = 0; row < baseWidth; row++) {
+            for (int column = 0; column < baseWidth - row; column++) {
+                Body box = new Body.Builder()
+                        .setMaterial(material)
+                        .setShape(new Rectangle(0, 0, BOX_SIZE, BOX_SIZE))
+                        .setPosition(world.getWidth() / 4 + (column + row / 2.0) * BOX_SIZE,
+                                floorY - (row + 1) * BOX_SIZE)
+                        .build();
+                box.applyPersistentForce(new Vector2D(Vector2D.CARTESIAN, 0, GRAVITY));
+                world.addBody(box);
+                boxes.add(box);
+            }
+        }
+        return boxes;
+    }
+
+    /**
+     * @return a hash of the positions and velocities of some bodies
+     */
+    private static long hash(ArrayList<Body> bodies) {
+        long hash = 17;
+        for (Body body : bodies) {
+            hash = hash * 31 + Double.doubleToLongBits(body.getPosition().getX());
+            hash = hash * 31 + Double.doubleToLongBits(body.getPosition().getY());
+            hash = hash * 31 + Double.doubleToLongBits(body.getVelocity().getX());
+            hash = hash * 31 + Double.doubleToLongBits(body.getVelocity().getY());
+        }
+        return hash;
+    }
+}
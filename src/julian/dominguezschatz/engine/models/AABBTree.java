@@ -0,0 +1,497 @@
+package julian.dominguezschatz.engine.models;
+
+import julian.dominguezschatz.engine.models.rules.broadphase.PairHandler;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Class: AABBTree
+ * Author: Julian Dominguez-Schatz
+ * Date: 2026-10-17
+ * Description: Represents a dynamic bounding volume tree of axis-aligned bounding boxes (AABBs). Each leaf holds a
+ * body, and each internal node holds the union of the bounds of its children.
+ *
+ * The leaf bounds are "fattened" by a margin, so that a body may move a small distance without the tree needing
+ * to change. Only leaves whose body leaves its fattened bounds are removed and reinserted. The tree is kept
+ * balanced using rotations, similar to an AVL tree, and new leaves are placed using a surface area heuristic.
+ *
+ * Nodes are stored in parallel arrays and are referred to by index, so the tree does not allocate once it has
+ * grown to the size of the world.
+ *
+ * Solution adapted from:
+ * https://github.com/erincatto/Box2D/blob/master/Box2D/Box2D/Collision/b2DynamicTree.cpp
+ */
+public class AABBTree {
+
+    // represents the absence of a node
+    public static final int NULL_NODE = -1;
+
+    // the initial number of nodes to allocate
+    private static final int INITIAL_CAPACITY = 16;
+
+    // the distance each leaf's bounds are extended by in every direction
+    private final double margin;
+
+    // the root of the tree
+    private int root;
+
+    // the bounds of each node
+    private double[] minX;
+    private double[] minY;
+    private double[] maxX;
+    private double[] maxY;
+
+    // the structure of the tree; for free nodes, parent holds the next free node
+    private int[] parent;
+    private int[] child1;
+    private int[] child2;
+
+    // the height of each node, where leaves have a height of 0 and free nodes have a height of -1
+    private int[] height;
+
+    // the body held by each leaf
+    private Body[] bodies;
+
+    // the first node in the free list
+    private int freeList;
+
+    // used to traverse the tree without recursion
+    private int[] stack;
+
+    /**
+     * Constructor.
+     * @param margin the distance each leaf's bounds are extended by in every direction
+     */
+    public AABBTree(double margin) {
+        if (margin < 0) {
+            throw new IllegalArgumentException("Margin must be >= 0!");
+        }
+
+        this.margin = margin;
+        root = NULL_NODE;
+        freeList = NULL_NODE;
+        stack = new int[INITIAL_CAPACITY];
+        grow(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Adds a body to the tree.
+     * @param body the body to add
+     * @param minX the minimum x value of the body's bounds
+     * @param minY the minimum y value of the body's bounds
+     * @param maxX the maximum x value of the body's bounds
+     * @param maxY the maximum y value of the body's bounds
+     * @return the id of the leaf created for the body
+     */
+    public int createProxy(Body body, double minX, double minY, double maxX, double maxY) {
+        int proxy = allocateNode();
+        setFatBounds(proxy, minX, minY, maxX, maxY);
+        bodies[proxy] = body;
+        height[proxy] = 0;
+
+        insertLeaf(proxy);
+        return proxy;
+    }
+
+    /**
+     * Removes a body from the tree.
+     * @param proxy the id of the body's leaf
+     */
+    public void destroyProxy(int proxy) {
+        removeLeaf(proxy);
+        freeNode(proxy);
+    }
+
+    /**
+     * Updates the bounds of a leaf. The leaf is only moved if the new bounds are not contained by its fattened
+     * bounds.
+     *
+     * @param proxy the id of the body's leaf
+     * @param minX the minimum x value of the body's bounds
+     * @param minY the minimum y value of the body's bounds
+     * @param maxX the maximum x value of the body's bounds
+     * @param maxY the maximum y value of the body's bounds
+     * @return whether the leaf was moved
+     */
+    public boolean moveProxy(int proxy, double minX, double minY, double maxX, double maxY) {
+        if (this.minX[proxy] <= minX && this.minY[proxy] <= minY
+                && this.maxX[proxy] >= maxX && this.maxY[proxy] >= maxY) {
+            return false;
+        }
+
+        removeLeaf(proxy);
+        setFatBounds(proxy, minX, minY, maxX, maxY);
+        insertLeaf(proxy);
+        return true;
+    }
+
+    /**
+     * Reports every pair of leaves whose fattened bounds overlap. Each leaf queries the tree once, so this runs
+     * in O(n log n) time.
+     *
+     * @param handler the handler that receives each pair
+     */
+    public void findPairs(PairHandler handler) {
+        for (int proxy = 0; proxy < height.length; proxy++) {
+            if (height[proxy] != 0) {
+                continue;
+            }
+
+            int top = 0;
+            stack[top++] = root;
+            while (top > 0) {
+                int node = stack[--top];
+
+                // the pair is reported by the leaf with the lower id
+                if (node <= proxy && height[node] == 0) {
+                    continue;
+                }
+                if (!overlaps(proxy, node)) {
+                    continue;
+                }
+
+                if (height[node] == 0) {
+                    handler.handlePair(bodies[proxy], bodies[node]);
+                } else {
+                    if (top + 2 > stack.length) {
+                        stack = Arrays.copyOf(stack, stack.length * 2);
+                    }
+                    stack[top++] = child1[node];
+                    stack[top++] = child2[node];
+                }
+            }
+        }
+    }
+
+    /**
+     * Finds every leaf whose fattened bounds overlap a region.
+     *
+     * @param queryMinX the minimum x value of the region
+     * @param queryMinY the minimum y value of the region
+     * @param queryMaxX the maximum x value of the region
+     * @param queryMaxY the maximum y value of the region
+     * @param result the list the bodies found are added to
+     */
+    public void query(double queryMinX, double queryMinY, double queryMaxX, double queryMaxY, List<Body> result) {
+        if (root == NULL_NODE) {
+            return;
+        }
+
+        int top = 0;
+        stack[top++] = root;
+        while (top > 0) {
+            int node = stack[--top];
+            if (queryMinX > maxX[node] || minX[node] > queryMaxX
+                    || queryMinY > maxY[node] || minY[node] > queryMaxY) {
+                continue;
+            }
+
+            if (height[node] == 0) {
+                result.add(bodies[node]);
+            } else {
+                if (top + 2 > stack.length) {
+                    stack = Arrays.copyOf(stack, stack.length * 2);
+                }
+                stack[top++] = child1[node];
+                stack[top++] = child2[node];
+            }
+        }
+    }
+
+    /**
+     * Inserts a leaf into the tree, next to the node that would cause the least growth in the tree's bounds.
+     * @param leaf the leaf to insert
+     */
+    private void insertLeaf(int leaf) {
+        if (root == NULL_NODE) {
+            root = leaf;
+            parent[leaf] = NULL_NODE;
+            return;
+        }
+
+        // find the best sibling for the leaf
+        int index = root;
+        while (height[index] > 0) {
+            int first = child1[index];
+            int second = child2[index];
+
+            double perimeter = perimeter(index);
+            double combinedPerimeter = combinedPerimeter(index, leaf);
+
+            // the cost of creating a new parent for this node and the new leaf
+            double cost = 2 * combinedPerimeter;
+
+            // the minimum cost of pushing the leaf further down the tree
+            double inheritanceCost = 2 * (combinedPerimeter - perimeter);
+
+            double cost1 = descentCost(first, leaf) + inheritanceCost;
+            double cost2 = descentCost(second, leaf) + inheritanceCost;
+            if (cost < cost1 && cost < cost2) {
+                break;
+            }
+
+            index = cost1 < cost2 ? first : second;
+        }
+        int sibling = index;
+
+        // create a new parent for the leaf and its sibling
+        int oldParent = parent[sibling];
+        int newParent = allocateNode();
+        parent[newParent] = oldParent;
+        bodies[newParent] = null;
+        setUnion(newParent, leaf, sibling);
+        height[newParent] = height[sibling] + 1;
+
+        if (oldParent != NULL_NODE) {
+            replaceChild(oldParent, sibling, newParent);
+        } else {
+            root = newParent;
+        }
+        child1[newParent] = sibling;
+        child2[newParent] = leaf;
+        parent[sibling] = newParent;
+        parent[leaf] = newParent;
+
+        refitAncestors(newParent);
+    }
+
+    /**
+     * Removes a leaf from the tree. Its parent is freed and replaced by its sibling.
+     * @param leaf the leaf to remove
+     */
+    private void removeLeaf(int leaf) {
+        if (leaf == root) {
+            root = NULL_NODE;
+            return;
+        }
+
+        int oldParent = parent[leaf];
+        int grandParent = parent[oldParent];
+        int sibling = child1[oldParent] == leaf ? child2[oldParent] : child1[oldParent];
+
+        if (grandParent != NULL_NODE) {
+            replaceChild(grandParent, oldParent, sibling);
+            parent[sibling] = grandParent;
+            freeNode(oldParent);
+
+            refitAncestors(grandParent);
+        } else {
+            root = sibling;
+            parent[sibling] = NULL_NODE;
+            freeNode(oldParent);
+        }
+    }
+
+    /**
+     * Walks from a node to the root, rebalancing and recomputing the bounds and height of each node on the way.
+     * @param index the node to start at
+     */
+    private void refitAncestors(int index) {
+        while (index != NULL_NODE) {
+            index = balance(index);
+
+            int first = child1[index];
+            int second = child2[index];
+            height[index] = 1 + Math.max(height[first], height[second]);
+            setUnion(index, first, second);
+
+            index = parent[index];
+        }
+    }
+
+    /**
+     * Performs a left or right rotation if the subtree rooted at a node is imbalanced.
+     * @param a the root of the subtree
+     * @return the new root of the subtree
+     */
+    private int balance(int a) {
+        if (height[a] < 2) {
+            return a;
+        }
+
+        int b = child1[a];
+        int c = child2[a];
+        int balance = height[c] - height[b];
+
+        // rotate c up
+        if (balance > 1) {
+            int f = child1[c];
+            int g = child2[c];
+
+            child1[c] = a;
+            parent[c] = parent[a];
+            parent[a] = c;
+            if (parent[c] != NULL_NODE) {
+                replaceChild(parent[c], a, c);
+            } else {
+                root = c;
+            }
+
+            if (height[f] > height[g]) {
+                child2[c] = f;
+                child2[a] = g;
+                parent[g] = a;
+                setUnion(a, b, g);
+                setUnion(c, a, f);
+                height[a] = 1 + Math.max(height[b], height[g]);
+                height[c] = 1 + Math.max(height[a], height[f]);
+            } else {
+                child2[c] = g;
+                child2[a] = f;
+                parent[f] = a;
+                setUnion(a, b, f);
+                setUnion(c, a, g);
+                height[a] = 1 + Math.max(height[b], height[f]);
+                height[c] = 1 + Math.max(height[a], height[g]);
+            }
+            return c;
+        }
+
+        // rotate b up
+        if (balance < -1) {
+            int d = child1[b];
+            int e = child2[b];
+
+            child1[b] = a;
+            parent[b] = parent[a];
+            parent[a] = b;
+            if (parent[b] != NULL_NODE) {
+                replaceChild(parent[b], a, b);
+            } else {
+                root = b;
+            }
+
+            if (height[d] > height[e]) {
+                child2[b] = d;
+                child1[a] = e;
+                parent[e] = a;
+                setUnion(a, c, e);
+                setUnion(b, a, d);
+                height[a] = 1 + Math.max(height[c], height[e]);
+                height[b] = 1 + Math.max(height[a], height[d]);
+            } else {
+                child2[b] = e;
+                child1[a] = d;
+                parent[d] = a;
+                setUnion(a, c, d);
+                setUnion(b, a, e);
+                height[a] = 1 + Math.max(height[c], height[d]);
+                height[b] = 1 + Math.max(height[a], height[e]);
+            }
+            return b;
+        }
+
+        return a;
+    }
+
+    // node allocation
+
+    private int allocateNode() {
+        if (freeList == NULL_NODE) {
+            grow(height.length * 2);
+        }
+
+        int node = freeList;
+        freeList = parent[node];
+        parent[node] = NULL_NODE;
+        child1[node] = NULL_NODE;
+        child2[node] = NULL_NODE;
+        height[node] = 0;
+        return node;
+    }
+
+    private void freeNode(int node) {
+        parent[node] = freeList;
+        height[node] = -1;
+        bodies[node] = null;
+        freeList = node;
+    }
+
+    /**
+     * Increases the number of nodes available, adding the new nodes to the free list.
+     * @param capacity the new number of nodes
+     */
+    private void grow(int capacity) {
+        int oldCapacity = height == null ? 0 : height.length;
+
+        minX = height == null ? new double[capacity] : Arrays.copyOf(minX, capacity);
+        minY = height == null ? new double[capacity] : Arrays.copyOf(minY, capacity);
+        maxX = height == null ? new double[capacity] : Arrays.copyOf(maxX, capacity);
+        maxY = height == null ? new double[capacity] : Arrays.copyOf(maxY, capacity);
+        parent = height == null ? new int[capacity] : Arrays.copyOf(parent, capacity);
+        child1 = height == null ? new int[capacity] : Arrays.copyOf(child1, capacity);
+        child2 = height == null ? new int[capacity] : Arrays.copyOf(child2, capacity);
+        bodies = height == null ? new Body[capacity] : Arrays.copyOf(bodies, capacity);
+        height = height == null ? new int[capacity] : Arrays.copyOf(height, capacity);
+
+        for (int node = capacity - 1; node >= oldCapacity; node--) {
+            freeNode(node);
+        }
+    }
+
+    // bounds utilities
+
+    private void setFatBounds(int node, double minX, double minY, double maxX, double maxY) {
+        this.minX[node] = minX - margin;
+        this.minY[node] = minY - margin;
+        this.maxX[node] = maxX + margin;
+        this.maxY[node] = maxY + margin;
+    }
+
+    private void setUnion(int node, int first, int second) {
+        minX[node] = Math.min(minX[first], minX[second]);
+        minY[node] = Math.min(minY[first], minY[second]);
+        maxX[node] = Math.max(maxX[first], maxX[second]);
+        maxY[node] = Math.max(maxY[first], maxY[second]);
+    }
+
+    private void replaceChild(int node, int oldChild, int newChild) {
+        if (child1[node] == oldChild) {
+            child1[node] = newChild;
+        } else {
+            child2[node] = newChild;
+        }
+    }
+
+    private boolean overlaps(int first, int second) {
+        return !(minX[first] > maxX[second] || minX[second] > maxX[first]
+                || minY[first] > maxY[second] || minY[second] > maxY[first]);
+    }
+
+    private double perimeter(int node) {
+        return 2 * ((maxX[node] - minX[node]) + (maxY[node] - minY[node]));
+    }
+
+    private double combinedPerimeter(int first, int second) {
+        double width = Math.max(maxX[first], maxX[second]) - Math.min(minX[first], minX[second]);
+        double height = Math.max(maxY[first], maxY[second]) - Math.min(minY[first], minY[second]);
+        return 2 * (width + height);
+    }
+
+    /**
+     * @param node the node to descend into
+     * @param leaf the leaf being inserted
+     * @return the cost of inserting the leaf somewhere below the given node
+     */
+    private double descentCost(int node, int leaf) {
+        if (height[node] == 0) {
+            return combinedPerimeter(node, leaf);
+        }
+        return combinedPerimeter(node, leaf) - perimeter(node);
+    }
+
+    // getters
+
+    public double getMargin() {
+        return margin;
+    }
+
+    public int getHeight() {
+        return root == NULL_NODE ? 0 : height[root];
+    }
+
+    public Body getBody(int proxy) {
+        return bodies[proxy];
+    }
+}
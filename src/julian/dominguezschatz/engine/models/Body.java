@@ -1,11 +1,16 @@
 package julian.dominguezschatz.engine.models;
 
+import julian.dominguezschatz.engine.models.rules.collision.ConvexDecompositionRule;
 import julian.dominguezschatz.engine.utils.Vector2D;
 
 import java.awt.Shape;
 import java.awt.geom.AffineTransform;
+import java.awt.geom.Path2D;
 import java.awt.geom.Point2D;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 
 /**
  * Class: Body
@@ -17,6 +22,10 @@ public class Body {
 
     public static final double INFINITE_MASS = 0;
 
+    // the mass of bodies that are not given one, and of bodies whose mass cannot be found from their shape because
+    // it has no area or no density
+    private static final double DEFAULT_MASS = 1;
+
     // the center of this entity
     protected final Point2D.Double position;
 
@@ -38,12 +47,17 @@ public class Body {
     // the angle this entity is rotated to, in radians
     protected double angleRadians;
 
+    // the cosine and sine of the angle, cached since the solver needs them for every contact
+    private double angleCos;
+    private double angleSin;
+
     // the angular velocity of this entity, in deg/s
     protected double angularVelocity;
 
     // the angular acceleration of this entity, in deg/s^2
     protected double angularAcceleration;
 
+    // the sum of all torques acting on this body this step, in N*m
     protected double torque;
 
     // the scale of this body, as a factor
@@ -60,15 +74,67 @@ public class Body {
     protected double reciprocalMass;
     protected boolean destroyOnDeath;
 
+    // the moment of inertia of this body about its center of mass, in kg*m^2; bodies with no moment of inertia,
+    // such as static bodies, never turn from contacts or torques
+    protected double inertia;
+    protected double reciprocalInertia;
+
+    // the center of mass of this body, in local coordinates
+    protected double localCenterOfMassX;
+    protected double localCenterOfMassY;
+
+    // whether this body moves fast enough to need continuous collision detection
+    protected boolean bullet;
+
+    // whether this body is being simulated; bodies that have been at rest for a while are put to sleep, and are
+    // neither integrated nor tested against each other until they are woken
+    private boolean awake;
+
+    // how long this body has been moving slowly enough to sleep, in milliseconds
+    private double sleepTime;
+
+    // while this body is asleep, the bodies of the island it fell asleep with, which are woken together with it
+    private Body[] sleepingIsland;
+
+    // the index of this body in its world's island builder during the current step
+    private int islandIndex;
+
+    // the position of this body at the start of the current step, used for continuous collision detection
+    private double stepStartX;
+    private double stepStartY;
+
     // represents this body's form in the physics simulation
     protected Collider collider;
 
-    // list of collisions that occurred this frame
-    protected final ArrayList<Body> frameCollisions;
-
     // cached transform
     private AffineTransform transform;
 
+    // the axis-aligned bounds of this body in world coordinates, updated along with the transform
+    private double minX;
+    private double minY;
+    private double maxX;
+    private double maxY;
+
+    // for polygons, the collider's vertices and normals in world coordinates, recomputed lazily once the transform
+    // changes, so that every pair this body is part of during a step shares them
+    private double[] worldVertices;
+    private double[] worldNormals;
+    private boolean worldVerticesOutdated = true;
+
+    // for compound bodies, a body for each child of the collider, whose position and transform follow this body's;
+    // for other bodies, this is empty
+    private Body[] children;
+
+    // for compound bodies, a hierarchy over the children in local coordinates; for other bodies, null
+    private StaticBVH childBVH;
+
+    // for the children of compound bodies, the body they belong to; for other bodies, null
+    private Body parent;
+
+    // the displacement the bounds were last swept by, or 0 if they have been recomputed since
+    private double sweepX;
+    private double sweepY;
+
     // the world this body is situated in, or null if it has not been added to a world
     protected World world;
 
@@ -88,6 +154,8 @@ public class Body {
 
         angle = 0;
         angleRadians = 0;
+        angleCos = 1;
+        angleSin = 0;
         angularVelocity = 0;
         angularAcceleration = 0;
         torque = 0;
@@ -96,34 +164,84 @@ public class Body {
 
         dead = false;
         destroyOnDeath = true;
+        awake = true;
 
         // a non-positive mass cannot exist!
         mass = 1;
 
         // world starts off null to signify "no world"
         world = null;
-        frameCollisions = new ArrayList<>();
 
         transform = new AffineTransform();
+        children = new Body[0];
         updateTransform();
     }
 
     /**
      * Applies a force to this body. This performs the vector addition between the net force and the
      * applied force. This force will be applied for the duration of one cycle, i.e. it must be applied
-     * every cycle.
+     * every cycle. A sleeping body is woken by the force.
      * @param force the force to apply
      */
     public void applyForce(Vector2D force) {
         netForce.add(force);
+        setAwake(true);
     }
 
     /**
      * Applies a force to this body. This performs the vector addition between the net force and the applied force.
+     * A sleeping body is woken by the force.
      * @param force the force to apply
      */
     public void applyPersistentForce(Vector2D force) {
         persistentNetForce.add(force);
+        setAwake(true);
+    }
+
+    /**
+     * Applies a torque to this body for the duration of one cycle, turning it about its center of mass. A sleeping
+     * body is woken by the torque.
+     * @param torque the torque to apply, in N*m, turning the body towards greater angles
+     */
+    public void applyTorque(double torque) {
+        this.torque += torque;
+        setAwake(true);
+    }
+
+    /**
+     * Applies an impulse to this body at a point, changing its velocity and, if the point is not its center of
+     * mass, its angular velocity. Static bodies are left untouched. Unlike a force, an impulse does not wake the
+     * body, since the solver applies impulses to resting bodies every step.
+     *
+     * @param impulseX the x value of the impulse, in N*s
+     * @param impulseY the y value of the impulse, in N*s
+     * @param offsetX the x value of the offset of the point from the center of mass, in world coordinates
+     * @param offsetY the y value of the offset of the point from the center of mass, in world coordinates
+     */
+    public void applyImpulse(double impulseX, double impulseY, double offsetX, double offsetY) {
+        if (isStatic()) {
+            return;
+        }
+
+        velocity.setCartesian(velocity.getX() + impulseX * reciprocalMass,
+                velocity.getY() + impulseY * reciprocalMass);
+
+        // the change in angular velocity comes out in rad/s, but angular velocity is kept in deg/s
+        double spin = reciprocalInertia * (offsetX * impulseY - offsetY * impulseX);
+        angularVelocity += Math.toDegrees(spin);
+    }
+
+    /**
+     * Puts this body to sleep along with the rest of its island, stopping it. Waking any body of the island wakes
+     * all of them.
+     * @param island the bodies of the island, which are shared by each of them
+     */
+    void sleep(Body[] island) {
+        awake = false;
+        sleepTime = 0;
+        sleepingIsland = island;
+        velocity.clear();
+        angularVelocity = 0;
     }
 
     /**
@@ -132,6 +250,7 @@ public class Body {
     protected void clearForces() {
         netForce.clear();
         netForce.add(persistentNetForce);
+        torque = 0;
     }
 
     /**
@@ -142,57 +261,255 @@ public class Body {
         this.idInWorld = idInWorld;
     }
 
+    void updateTransform() {
+        if (positionOutdated || angleOutdated || scaleOutdated) {
+            transform.setToTranslation(position.getX(), position.getY());
+            transform.rotate(angleRadians);
+            transform.scale(scale, scale);
+
+            positionOutdated = false;
+            angleOutdated = false;
+            scaleOutdated = false;
+            worldVerticesOutdated = true;
+
+            updateBounds();
+            updateChildTransforms();
+        }
+    }
+
     /**
-     * Registers a collision occurring this frame, so it will not be computed twice.
-     *
-     * @param body the body being collided with
+     * Moves the children of a compound body along with it.
      */
-    void addFrameCollision(Body body) {
-        frameCollisions.add(body);
+    private void updateChildTransforms() {
+        if (children.length == 0) {
+            return;
+        }
+
+        double[] offsets = collider.getChildOffsets();
+        for (int i = 0; i < children.length; i++) {
+            Body child = children[i];
+            child.transform.setTransform(transform);
+            child.transform.translate(offsets[i * 2], offsets[i * 2 + 1]);
+            child.position.setLocation(child.transform.getTranslateX(), child.transform.getTranslateY());
+            child.worldVerticesOutdated = true;
+            child.updateBounds();
+        }
     }
 
     /**
-     * Determines whether a collision response should take place.
-     *
-     * @param body the body being collided with
-     * @return whether a collision should occur
+     * Creates a body for each child of a compound collider, and the hierarchy used to find them.
+     */
+    private void createChildren() {
+        Collider[] childColliders = collider.getChildren();
+        double[] offsets = collider.getChildOffsets();
+
+        children = new Body[childColliders.length];
+        for (int i = 0; i < children.length; i++) {
+            Body child = new Body();
+            child.collider = childColliders[i];
+            child.parent = this;
+            child.position.setLocation(offsets[i * 2], offsets[i * 2 + 1]);
+            child.transform.setToTranslation(offsets[i * 2], offsets[i * 2 + 1]);
+            child.updateBounds();
+            children[i] = child;
+        }
+
+        // the bounds of the children are still in local coordinates here, which the hierarchy is built in
+        childBVH = new StaticBVH(Arrays.asList(children));
+    }
+
+    /**
+     * Updates the world bounds of this body by transforming the corners of its collider's local bounds. This is
+     * exact when the body is not rotated, and slightly too large otherwise.
      */
-    boolean shouldCollide(Body body) {
-        return !frameCollisions.contains(body);
+    private void updateBounds() {
+        if (collider == null) {
+            return;
+        }
+        sweepX = 0;
+        sweepY = 0;
+
+        double localMinX = collider.getLocalMinX();
+        double localMinY = collider.getLocalMinY();
+        double localMaxX = collider.getLocalMaxX();
+        double localMaxY = collider.getLocalMaxY();
+
+        double m00 = transform.getScaleX();
+        double m01 = transform.getShearX();
+        double m10 = transform.getShearY();
+        double m11 = transform.getScaleY();
+
+        // each world coordinate is smallest at whichever local extreme its matrix entry favours
+        minX = transform.getTranslateX() + Math.min(m00 * localMinX, m00 * localMaxX)
+                + Math.min(m01 * localMinY, m01 * localMaxY);
+        maxX = transform.getTranslateX() + Math.max(m00 * localMinX, m00 * localMaxX)
+                + Math.max(m01 * localMinY, m01 * localMaxY);
+        minY = transform.getTranslateY() + Math.min(m10 * localMinX, m10 * localMaxX)
+                + Math.min(m11 * localMinY, m11 * localMaxY);
+        maxY = transform.getTranslateY() + Math.max(m10 * localMinX, m10 * localMaxX)
+                + Math.max(m11 * localMinY, m11 * localMaxY);
     }
 
     /**
-     * Resets the collisions that have occurred this frame, so that two bodies may collide next frame.
+     * Transforms the collider's local vertices and normals into world coordinates, if the transform has changed
+     * since they were last computed.
      */
-    void clearFrameCollisions() {
-        frameCollisions.clear();
+    private void updateWorldVertices() {
+        if (!worldVerticesOutdated) {
+            return;
+        }
+        worldVerticesOutdated = false;
+
+        double[] vertices = collider.getVertices();
+        double[] normals = collider.getNormals();
+        if (worldVertices == null || worldVertices.length != vertices.length) {
+            worldVertices = new double[vertices.length];
+            worldNormals = new double[normals.length];
+        }
+
+        double m00 = transform.getScaleX();
+        double m01 = transform.getShearX();
+        double m02 = transform.getTranslateX();
+        double m10 = transform.getShearY();
+        double m11 = transform.getScaleY();
+        double m12 = transform.getTranslateY();
+
+        for (int i = 0; i < vertices.length; i += 2) {
+            worldVertices[i] = m00 * vertices[i] + m01 * vertices[i + 1] + m02;
+            worldVertices[i + 1] = m10 * vertices[i] + m11 * vertices[i + 1] + m12;
+
+            // the transform only rotates and uniformly scales, so normals stay perpendicular to their edges
+            double normalX = m00 * normals[i] + m01 * normals[i + 1];
+            double normalY = m10 * normals[i] + m11 * normals[i + 1];
+            double length = Math.sqrt(normalX * normalX + normalY * normalY);
+            if (length == 0) {
+                worldNormals[i] = normals[i];
+                worldNormals[i + 1] = normals[i + 1];
+            } else {
+                worldNormals[i] = normalX / length;
+                worldNormals[i + 1] = normalY / length;
+            }
+        }
     }
 
-    void updateTransform() {
-        if (positionOutdated || angleOutdated || scaleOutdated) {
-            transform.setToTranslation(position.getX(), position.getY());
-            transform.rotate(angleRadians);
-            transform.scale(scale, scale);
+    /**
+     * @param other another body
+     * @return whether the world bounds of this body and another body overlap
+     */
+    public boolean boundsOverlap(Body other) {
+        return !(minX > other.maxX || other.minX > maxX || minY > other.maxY || other.minY > maxY);
+    }
+
+    /**
+     * Grows the world bounds of this body to also cover where it would be after moving by a displacement. The bounds
+     * are recomputed from the transform first, so that repeated calls do not keep growing them.
+     *
+     * @param displacementX the x value of the displacement
+     * @param displacementY the y value of the displacement
+     */
+    void sweepBounds(double displacementX, double displacementY) {
+        updateBounds();
+
+        if (displacementX < 0) {
+            minX += displacementX;
+        } else {
+            maxX += displacementX;
+        }
+        if (displacementY < 0) {
+            minY += displacementY;
+        } else {
+            maxY += displacementY;
         }
 
-        /*if (positionOutdated) {
-            transform.setToTranslation(position.getX(), position.getY());
-            positionOutdated = false;
+        sweepX = displacementX;
+        sweepY = displacementY;
+        for (Body child : children) {
+            child.sweepBounds(displacementX, displacementY);
         }
+    }
 
-        if (angleOutdated) {
-            transform.setToRotation(angleRadians);
-            angleOutdated = false;
+    /**
+     * Finds the convex parts of this body whose bounds overlap a region. For a compound body, these are the children
+     * found using its hierarchy; for other bodies, this is the body itself.
+     *
+     * @param queryMinX the minimum x value of the region
+     * @param queryMinY the minimum y value of the region
+     * @param queryMaxX the maximum x value of the region
+     * @param queryMaxY the maximum y value of the region
+     * @param result the list the parts found are added to
+     */
+    public void queryParts(double queryMinX, double queryMinY, double queryMaxX, double queryMaxY,
+                           List<Body> result) {
+        if (queryMinX > maxX || minX > queryMaxX || queryMinY > maxY || minY > queryMaxY) {
+            return;
+        }
+        if (childBVH == null) {
+            result.add(this);
+            return;
         }
 
-        if (scaleOutdated) {
-            transform.setToScale(scale, scale);
-            scaleOutdated = false;
-        }*/
+        // the hierarchy holds unswept bounds, so the region is grown against the sweep instead
+        double regionMinX = queryMinX - Math.max(0, sweepX);
+        double regionMinY = queryMinY - Math.max(0, sweepY);
+        double regionMaxX = queryMaxX - Math.min(0, sweepX);
+        double regionMaxY = queryMaxY - Math.min(0, sweepY);
+
+        int first = result.size();
+        double m00 = transform.getScaleX();
+        double m01 = transform.getShearX();
+        double m10 = transform.getShearY();
+        double m11 = transform.getScaleY();
+        double determinant = m00 * m11 - m01 * m10;
+        if (determinant == 0) {
+            // every child is at the same point, so none can be ruled out in local coordinates
+            Collections.addAll(result, children);
+        } else {
+            // bring the corners of the region into local coordinates, where the hierarchy was built
+            double localMinX = Double.POSITIVE_INFINITY;
+            double localMinY = Double.POSITIVE_INFINITY;
+            double localMaxX = Double.NEGATIVE_INFINITY;
+            double localMaxY = Double.NEGATIVE_INFINITY;
+            for (int corner = 0; corner < 4; corner++) {
+                double x = ((corner & 1) == 0 ? regionMinX : regionMaxX) - transform.getTranslateX();
+                double y = ((corner & 2) == 0 ? regionMinY : regionMaxY) - transform.getTranslateY();
+                double localX = (m11 * x - m01 * y) / determinant;
+                double localY = (m00 * y - m10 * x) / determinant;
+                localMinX = Math.min(localMinX, localX);
+                localMinY = Math.min(localMinY, localY);
+                localMaxX = Math.max(localMaxX, localX);
+                localMaxY = Math.max(localMaxY, localY);
+            }
+            childBVH.query(localMinX, localMinY, localMaxX, localMaxY, result);
+        }
+
+        // the local region is larger than the world region when this body is rotated, so the world bounds of each
+        // child found are checked as well
+        int kept = first;
+        for (int i = first; i < result.size(); i++) {
+            Body child = result.get(i);
+            if (!(queryMinX > child.maxX || child.minX > queryMaxX
+                    || queryMinY > child.maxY || child.minY > queryMaxY)) {
+                result.set(kept++, child);
+            }
+        }
+        while (result.size() > kept) {
+            result.remove(result.size() - 1);
+        }
+    }
+
+    /**
+     * Records the current position as the start of the motion for this step.
+     */
+    void markStepStart() {
+        stepStartX = position.x;
+        stepStartY = position.y;
     }
 
     void removeFromWorld() {
         world = null;
+        for (Body child : children) {
+            child.world = null;
+        }
     }
 
     // getters
@@ -223,8 +540,12 @@ public class Body {
         return angularVelocity;
     }
 
+    /**
+     * @return the angular acceleration of this body, in deg/s^2, including that caused by the torque applied this
+     *         step
+     */
     public double getAngularAcceleration() {
-        return angularAcceleration;
+        return angularAcceleration + Math.toDegrees(torque * reciprocalInertia);
     }
 
     public double getTorque() {
@@ -243,6 +564,33 @@ public class Body {
         return destroyOnDeath;
     }
 
+    public boolean isBullet() {
+        return bullet;
+    }
+
+    /**
+     * @return whether this body is being simulated, rather than sleeping
+     */
+    public boolean isAwake() {
+        return awake;
+    }
+
+    double getSleepTime() {
+        return sleepTime;
+    }
+
+    int getIslandIndex() {
+        return islandIndex;
+    }
+
+    public double getStepStartX() {
+        return stepStartX;
+    }
+
+    public double getStepStartY() {
+        return stepStartY;
+    }
+
     public double getMass() {
         return mass;
     }
@@ -251,6 +599,39 @@ public class Body {
         return reciprocalMass;
     }
 
+    public double getInertia() {
+        return inertia;
+    }
+
+    public double getReciprocalInertia() {
+        return reciprocalInertia;
+    }
+
+    /**
+     * @return the x value of the center of mass of this body, in world coordinates
+     */
+    public double getCenterOfMassX() {
+        double scaledX = localCenterOfMassX * scale;
+        double scaledY = localCenterOfMassY * scale;
+        return position.x + scaledX * angleCos - scaledY * angleSin;
+    }
+
+    /**
+     * @return the y value of the center of mass of this body, in world coordinates
+     */
+    public double getCenterOfMassY() {
+        double scaledX = localCenterOfMassX * scale;
+        double scaledY = localCenterOfMassY * scale;
+        return position.y + scaledX * angleSin + scaledY * angleCos;
+    }
+
+    /**
+     * @return whether this body has infinite mass, meaning that it never moves
+     */
+    public boolean isStatic() {
+        return mass == INFINITE_MASS;
+    }
+
     public World getWorld() {
         return world;
     }
@@ -263,15 +644,100 @@ public class Body {
         return collider;
     }
 
+    public boolean isCompound() {
+        return childBVH != null;
+    }
+
+    /**
+     * @return for the children of compound bodies, the body they belong to; otherwise, null
+     */
+    public Body getParent() {
+        return parent;
+    }
+
+    /**
+     * @return for compound bodies, a body for each child of the collider, whose transform follows this body's;
+     *         otherwise, an empty array. This array must not be modified
+     */
+    public Body[] getChildren() {
+        return children;
+    }
+
     public AffineTransform getTransform() {
         return transform;
     }
 
+    /**
+     * @return the packed vertices of this body's collider in world coordinates, as of the last transform update;
+     *         this array must not be modified
+     */
+    public double[] getWorldVertices() {
+        updateWorldVertices();
+        return worldVertices;
+    }
+
+    /**
+     * @return the packed outward edge normals of this body's collider in world coordinates, as of the last
+     *         transform update; this array must not be modified
+     */
+    public double[] getWorldNormals() {
+        updateWorldVertices();
+        return worldNormals;
+    }
+
+    /**
+     * @return for circles, the radius of this body's collider in world coordinates, as of the last transform update
+     */
+    public double getWorldRadius() {
+        double m00 = transform.getScaleX();
+        double m10 = transform.getShearY();
+        return collider.getRadius() * Math.sqrt(m00 * m00 + m10 * m10);
+    }
+
+    /**
+     * @return the x value of the center of this body's shape in world coordinates, as of the last transform update;
+     *         for circles, this is the point the radius is measured from
+     */
+    public double getWorldCenterX() {
+        ShapeGeometry geometry = collider.getGeometry();
+        double localX = (geometry.getMinX() + geometry.getMaxX()) / 2;
+        double localY = (geometry.getMinY() + geometry.getMaxY()) / 2;
+        return transform.getScaleX() * localX + transform.getShearX() * localY + transform.getTranslateX();
+    }
+
+    /**
+     * @return the y value of the center of this body's shape in world coordinates, as of the last transform update;
+     *         for circles, this is the point the radius is measured from
+     */
+    public double getWorldCenterY() {
+        ShapeGeometry geometry = collider.getGeometry();
+        double localX = (geometry.getMinX() + geometry.getMaxX()) / 2;
+        double localY = (geometry.getMinY() + geometry.getMaxY()) / 2;
+        return transform.getShearY() * localX + transform.getScaleY() * localY + transform.getTranslateY();
+    }
+
+    public double getMinX() {
+        return minX;
+    }
+
+    public double getMinY() {
+        return minY;
+    }
+
+    public double getMaxX() {
+        return maxX;
+    }
+
+    public double getMaxY() {
+        return maxY;
+    }
+
     // setters
 
     public void setPosition(double x, double y) {
         position.setLocation(x, y);
         positionOutdated = true;
+        setAwake(true);
     }
 
     public void setPosition(Point2D.Double position) {
@@ -281,6 +747,46 @@ public class Body {
 
         this.position.setLocation(position);
         positionOutdated = true;
+        setAwake(true);
+    }
+
+    /**
+     * Wakes this body, or puts it to sleep. Waking a body wakes every body of the island it fell asleep with, and
+     * restarts the time it must stay at rest before it can sleep again. A body put to sleep directly sleeps on its
+     * own, and is stopped.
+     * @param awake whether the body is to be simulated
+     */
+    public void setAwake(boolean awake) {
+        if (!awake) {
+            sleep(null);
+            return;
+        }
+
+        sleepTime = 0;
+        if (this.awake) {
+            return;
+        }
+
+        if (sleepingIsland == null) {
+            this.awake = true;
+            return;
+        }
+
+        // every body of the island shares the same array, so each is released from it here
+        Body[] island = sleepingIsland;
+        for (Body body : island) {
+            body.awake = true;
+            body.sleepTime = 0;
+            body.sleepingIsland = null;
+        }
+    }
+
+    void setSleepTime(double sleepTime) {
+        this.sleepTime = sleepTime;
+    }
+
+    void setIslandIndex(int islandIndex) {
+        this.islandIndex = islandIndex;
     }
 
     public void translate(double dx, double dy) {
@@ -292,9 +798,27 @@ public class Body {
     public void setAngle(double angle) {
         this.angle = angle;
         this.angleRadians = Math.toRadians(angle);
+        angleCos = Math.cos(angleRadians);
+        angleSin = Math.sin(angleRadians);
         angleOutdated = true;
     }
 
+    /**
+     * Turns this body about its center of mass. Unlike setAngle, which turns the body about its origin, this keeps
+     * the center of mass in place, so it is what motion rules use.
+     * @param deltaAngle the angle to turn by, in degrees
+     */
+    public void rotate(double deltaAngle) {
+        if (deltaAngle == 0) {
+            return;
+        }
+
+        double centerX = getCenterOfMassX();
+        double centerY = getCenterOfMassY();
+        setAngle(angle + deltaAngle);
+        translate(centerX - getCenterOfMassX(), centerY - getCenterOfMassY());
+    }
+
     public void setAngularVelocity(double angularVelocity) {
         this.angularVelocity = angularVelocity;
     }
@@ -317,16 +841,31 @@ public class Body {
      */
     public static class Builder {
 
+        // splits concave polygons into convex pieces, shared so that each shape is only decomposed once
+        private static final ConvexDecompositionRule CONVEX_DECOMPOSITION_RULE = new ConvexDecompositionRule();
+
         private boolean destroyOnDeath;
+        private boolean bullet;
+        private boolean massFromDensity;
         private double mass;
         private double reciprocalMass;
         private Material material;
         private Shape shape;
+        private final ArrayList<Shape> childShapes;
+        private final ArrayList<Point2D.Double> childOffsets;
         private Point2D.Double position;
+        private int categoryBits;
+        private int maskBits;
+        private int groupIndex;
 
         public Builder() {
-            setMass(1);
+            childShapes = new ArrayList<>();
+            childOffsets = new ArrayList<>();
+            setMass(DEFAULT_MASS);
             setDestroyOnDeath(false);
+            setCategoryBits(Collider.DEFAULT_CATEGORY_BITS);
+            setMaskBits(Collider.DEFAULT_MASK_BITS);
+            setGroupIndex(Collider.DEFAULT_GROUP_INDEX);
         }
 
         public Builder setDestroyOnDeath(boolean destroyOnDeath) {
@@ -334,11 +873,32 @@ public class Body {
             return this;
         }
 
+        /**
+         * Bullets are checked for collisions along their whole path each step, rather than only where they end
+         * up, so that they cannot pass through thin bodies. This costs more, so it should only be used for small,
+         * fast bodies such as projectiles.
+         *
+         * @param bullet whether the body is a bullet
+         * @return this builder
+         */
+        public Builder setBullet(boolean bullet) {
+            this.bullet = bullet;
+            return this;
+        }
+
+        /**
+         * Gives the body a mass. The mass is spread over the shape evenly when finding the body's moment of
+         * inertia. Bodies have a mass of 1 unless they are given another, or their mass is found from their density.
+         *
+         * @param mass the mass of the body, or INFINITE_MASS for a static body
+         * @return this builder
+         */
         public Builder setMass(double mass) {
             if (mass < 0) {
                 throw new IllegalArgumentException("Mass of a body must be >= 0!");
             }
 
+            this.massFromDensity = false;
             this.mass = mass;
 
             // calculate the reciprocal of the mass, to be cached
@@ -351,28 +911,148 @@ public class Body {
             return this;
         }
 
+        /**
+         * Finds the body's mass from the area of its shape and the density of its material when it is built, rather
+         * than using the mass given. Bodies whose shape has no area, or whose material has no density, keep a mass
+         * of 1.
+         *
+         * @return this builder
+         */
+        public Builder setMassFromDensity() {
+            this.massFromDensity = true;
+            return this;
+        }
+
         public Builder setMaterial(Material material) {
             this.material = material;
             return this;
         }
 
+        /**
+         * Concave polygons are split into convex pieces when the body is built, making the body compound. The
+         * pieces are cached by shape, so a shape shared by many bodies must not be modified afterwards.
+         *
+         * @param shape the shape of the body
+         * @return this builder
+         */
         public Builder setShape(Shape shape) {
             this.shape = shape;
             return this;
         }
 
+        /**
+         * Adds a convex child shape, making the body compound. A compound body may be concave, since each of its
+         * children is tested for collisions on its own. A compound body must not also be given a shape.
+         *
+         * @param shape the shape of the child
+         * @param offsetX the x value of the offset of the child from the body's origin
+         * @param offsetY the y value of the offset of the child from the body's origin
+         * @return this builder
+         */
+        public Builder addShape(Shape shape, double offsetX, double offsetY) {
+            childShapes.add(shape);
+            childOffsets.add(new Point2D.Double(offsetX, offsetY));
+            return this;
+        }
+
         public Builder setPosition(double initialX, double initialY) {
             this.position = new Point2D.Double(initialX, initialY);
             return this;
         }
 
+        /**
+         * @param categoryBits the collision categories the body belongs to, as a bitfield
+         * @return this builder
+         */
+        public Builder setCategoryBits(int categoryBits) {
+            this.categoryBits = categoryBits;
+            return this;
+        }
+
+        /**
+         * @param maskBits the collision categories the body may collide with, as a bitfield
+         * @return this builder
+         */
+        public Builder setMaskBits(int maskBits) {
+            this.maskBits = maskBits;
+            return this;
+        }
+
+        /**
+         * Bodies sharing a positive group index always collide, and bodies sharing a negative group index never
+         * collide, regardless of their categories.
+         *
+         * @param groupIndex the collision group the body belongs to, or 0 for no group
+         * @return this builder
+         */
+        public Builder setGroupIndex(int groupIndex) {
+            this.groupIndex = groupIndex;
+            return this;
+        }
+
         private void setupBody(Body body) {
-            body.collider = new Collider(shape, material);
+            // a concave polygon is collided as a compound body made of its convex pieces
+            Path2D.Double[] pieces = null;
+            if (childShapes.isEmpty() && shape instanceof Path2D.Double) {
+                pieces = CONVEX_DECOMPOSITION_RULE.decompose((Path2D.Double) shape);
+            }
+
+            if (pieces != null && pieces.length > 1) {
+                body.collider = new Collider(pieces, new double[pieces.length * 2], material, categoryBits,
+                        maskBits, groupIndex);
+                body.createChildren();
+            } else if (childShapes.isEmpty()) {
+                body.collider = new Collider(shape, material, categoryBits, maskBits, groupIndex);
+            } else {
+                if (shape != null) {
+                    throw new IllegalArgumentException("A body must not have both a shape and child shapes!");
+                }
+
+                double[] offsets = new double[childOffsets.size() * 2];
+                for (int i = 0; i < childOffsets.size(); i++) {
+                    offsets[i * 2] = childOffsets.get(i).x;
+                    offsets[i * 2 + 1] = childOffsets.get(i).y;
+                }
+                body.collider = new Collider(childShapes.toArray(new Shape[childShapes.size()]), offsets, material,
+                        categoryBits, maskBits, groupIndex);
+                body.createChildren();
+            }
             body.destroyOnDeath = destroyOnDeath;
-            body.mass = mass;
-            body.reciprocalMass = reciprocalMass;
+            body.bullet = bullet;
+            setupMass(body);
             body.setPosition(position);
             body.updateTransform();
+            body.updateBounds();
+            body.updateChildTransforms();
+        }
+
+        /**
+         * Finds the center of mass and moment of inertia of a body from the geometry of its collider, and its mass
+         * too if it is to be found from its density.
+         */
+        private void setupMass(Body body) {
+            ShapeGeometry geometry = body.collider.getGeometry();
+            double area = geometry.getArea();
+            body.localCenterOfMassX = geometry.getCentroidX();
+            body.localCenterOfMassY = geometry.getCentroidY();
+
+            if (massFromDensity) {
+                double densityMass = area * body.collider.getMaterial().getDensity();
+                body.mass = densityMass > 0 ? densityMass : DEFAULT_MASS;
+                body.reciprocalMass = 1.0 / body.mass;
+            } else {
+                body.mass = mass;
+                body.reciprocalMass = reciprocalMass;
+            }
+
+            // the geometry's moment of inertia is for a density of 1, so it is scaled to the body's actual mass
+            if (body.isStatic() || area == 0) {
+                body.inertia = 0;
+                body.reciprocalInertia = 0;
+            } else {
+                body.inertia = body.mass * geometry.getInertia() / area;
+                body.reciprocalInertia = body.inertia == 0 ? 0 : 1.0 / body.inertia;
+            }
         }
 
         public Body build() {
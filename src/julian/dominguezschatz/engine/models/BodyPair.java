@@ -0,0 +1,179 @@
+package julian.dominguezschatz.engine.models;
+
+/**
+ * Class: BodyPair
+ * Author: Julian Dominguez-Schatz
+ * Date: 2026-10-17
+ * Description: Represents a pair of bodies that could be colliding. A pair lives in its world's pair table for as
+ * long as the broadphase keeps reporting it, so it can carry information about the pair from step to step.
+ */
+public class BodyPair {
+
+    // the bodies in this pair; the first body always has the lower id
+    private Body first;
+    private Body second;
+
+    // the key of this pair in the pair table
+    private long key;
+
+    // the last step this pair was tested in
+    private long lastStep;
+
+    // the bodies impulses are applied to: the bodies themselves, or for the parts of compound bodies, the bodies
+    // they belong to
+    private Body firstBody;
+    private Body secondBody;
+
+    // the result of the last collision test of this pair
+    private final CollisionResult result;
+
+    // the impulses accumulated along the normal and the tangent at each contact by the solver, and the id of each of
+    // those contacts, kept so that the solver can start the next step from them
+    private final double[] normalImpulses;
+    private final double[] tangentImpulses;
+    private final int[] impulseIds;
+    private int impulseCount;
+
+    // the impulses carried over to the contacts of a new result, while they are being matched
+    private final double[] matchedImpulses;
+    private final double[] matchedTangentImpulses;
+
+    /**
+     * Default constructor. Pairs are created by the pair table.
+     */
+    BodyPair() {
+        result = new CollisionResult();
+        normalImpulses = new double[CollisionResult.MAX_CONTACTS];
+        tangentImpulses = new double[CollisionResult.MAX_CONTACTS];
+        impulseIds = new int[CollisionResult.MAX_CONTACTS];
+        matchedImpulses = new double[CollisionResult.MAX_CONTACTS];
+        matchedTangentImpulses = new double[CollisionResult.MAX_CONTACTS];
+    }
+
+    /**
+     * Sets up this pair for a new pair of bodies.
+     * @param first the body with the lower id
+     * @param second the body with the higher id
+     * @param key the key of this pair in the pair table
+     */
+    void set(Body first, Body second, long key) {
+        this.first = first;
+        this.second = second;
+        this.key = key;
+        this.lastStep = -1;
+        firstBody = first.getParent() == null ? first : first.getParent();
+        secondBody = second.getParent() == null ? second : second.getParent();
+        impulseCount = 0;
+
+        // a recycled pair must not reuse the separating axis of the bodies it held before
+        result.clearSeparatingAxis();
+    }
+
+    /**
+     * Releases the bodies held by this pair, so that it can be reused.
+     */
+    void clear() {
+        first = null;
+        second = null;
+        firstBody = null;
+        secondBody = null;
+    }
+
+    /**
+     * Matches the contacts of a new result against those of the last step. Each contact with the same id as one of
+     * the last step keeps the impulses accumulated there, and new contacts start with no impulse.
+     */
+    void matchImpulses() {
+        int count = result.getContactCount();
+        for (int i = 0; i < count; i++) {
+            matchedImpulses[i] = 0;
+            matchedTangentImpulses[i] = 0;
+            for (int j = 0; j < impulseCount; j++) {
+                if (impulseIds[j] == result.getContactId(i)) {
+                    matchedImpulses[i] = normalImpulses[j];
+                    matchedTangentImpulses[i] = tangentImpulses[j];
+                }
+            }
+        }
+
+        for (int i = 0; i < count; i++) {
+            normalImpulses[i] = matchedImpulses[i];
+            tangentImpulses[i] = matchedTangentImpulses[i];
+            impulseIds[i] = result.getContactId(i);
+        }
+        impulseCount = count;
+    }
+
+    /**
+     * Forgets the impulses accumulated at the contacts of this pair, once its bodies stop touching.
+     */
+    void clearImpulses() {
+        impulseCount = 0;
+    }
+
+    // getters
+
+    public Body getFirst() {
+        return first;
+    }
+
+    public Body getSecond() {
+        return second;
+    }
+
+    public long getKey() {
+        return key;
+    }
+
+    public long getLastStep() {
+        return lastStep;
+    }
+
+    /**
+     * @return the body impulses on the first body of this pair are applied to
+     */
+    public Body getFirstBody() {
+        return firstBody;
+    }
+
+    /**
+     * @return the body impulses on the second body of this pair are applied to
+     */
+    public Body getSecondBody() {
+        return secondBody;
+    }
+
+    public CollisionResult getResult() {
+        return result;
+    }
+
+    /**
+     * @param contact the index of a contact of the last result
+     * @return the impulse accumulated along the normal at the contact
+     */
+    public double getNormalImpulse(int contact) {
+        return normalImpulses[contact];
+    }
+
+    /**
+     * @param contact the index of a contact of the last result
+     * @return the impulse accumulated along the tangent at the contact, by friction
+     */
+    public double getTangentImpulse(int contact) {
+        return tangentImpulses[contact];
+    }
+
+    // setters
+
+    public void setLastStep(long lastStep) {
+        this.lastStep = lastStep;
+    }
+
+    public void setNormalImpulse(int contact, double normalImpulse) {
+        normalImpulses[contact] = normalImpulse;
+    }
+
+    public void setTangentImpulse(int contact, double tangentImpulse) {
+        tangentImpulses[contact] = tangentImpulse;
+    }
+}
@@ -1,42 +1,54 @@
 package julian.dominguezschatz.engine.models;
 
 import julian.dominguezschatz.engine.models.rules.collision.AxisRule;
-import julian.dominguezschatz.engine.models.rules.collision.EllipseAxisRule;
-import julian.dominguezschatz.engine.models.rules.collision.EllipseProjectionRule;
-import julian.dominguezschatz.engine.models.rules.collision.EllipseVertexSelectionRule;
-import julian.dominguezschatz.engine.models.rules.collision.PolygonAssertionRule;
-import julian.dominguezschatz.engine.models.rules.collision.PolygonAxisRule;
-import julian.dominguezschatz.engine.models.rules.collision.PolygonProjectionRule;
-import julian.dominguezschatz.engine.models.rules.collision.PolygonVertexSelectionRule;
 import julian.dominguezschatz.engine.models.rules.collision.ProjectionRule;
+import julian.dominguezschatz.engine.models.rules.collision.SupportRule;
 import julian.dominguezschatz.engine.models.rules.collision.VertexSelectionRule;
 
 import java.awt.Shape;
 import java.awt.geom.Ellipse2D;
-import java.awt.geom.Path2D;
-import java.awt.geom.Rectangle2D;
 
 /**
  * Class: Collider
  * Author: Julian Dominguez-Schatz
  * Date: 22/04/2017
- * Description: Represents a collider for a body. This constitutes a body's material and shape.
+ * Description: Represents a collider for a body. This constitutes a body's material and shape. The geometry of the
+ * shape is interned by a ShapeRegistry, so colliders with the same shape share it.
  */
 public class Collider {
 
-    // a rule used to verify aspects of a polygon's shape
-    private static final PolygonAssertionRule POLYGON_ASSERTION_RULE = new PolygonAssertionRule();
+    // by default, a collider belongs to the first category and collides with every category
+    public static final int DEFAULT_CATEGORY_BITS = 0x0001;
+    public static final int DEFAULT_MASK_BITS = 0xFFFFFFFF;
+    public static final int DEFAULT_GROUP_INDEX = 0;
 
-    // rules used for collision detection that vary based on shape
-    private final ProjectionRule projectionRule;
-    private final AxisRule axisRule;
-    private final VertexSelectionRule vertexSelectionRule;
+    // the kinds of shape a collider may have, used to pick specialized collision tests
+    public static final int SHAPE_CIRCLE = 0;
+    public static final int SHAPE_POLYGON = 1;
+    public static final int SHAPE_TYPE_COUNT = 2;
+
+    // compound colliders are only ever tested through their children, so they are not counted as a shape type
+    public static final int SHAPE_COMPOUND = SHAPE_TYPE_COUNT;
+
+    // the precomputed geometry of the shape, shared with every other collider of the same shape
+    private final ShapeGeometry geometry;
 
     // the material this collider is made of
     private Material material;
 
-    // the shape of this collider
-    private Shape shape;
+    // the categories this collider belongs to, as a bitfield
+    private final int categoryBits;
+
+    // the categories this collider may collide with, as a bitfield
+    private final int maskBits;
+
+    // colliders sharing a positive group index always collide, and sharing a negative group index never collide
+    private final int groupIndex;
+
+    // for compound colliders, the convex children and their offsets in local coordinates, packed as
+    // {x0, y0, x1, y1, ...}; for other colliders, these are empty
+    private final Collider[] children;
+    private final double[] childOffsets;
 
     /**
      * Constructor.
@@ -44,32 +56,56 @@ public class Collider {
      * @param material the material this collider is made of
      */
     public Collider(Shape shape, Material material) {
+        this(shape, material, DEFAULT_CATEGORY_BITS, DEFAULT_MASK_BITS, DEFAULT_GROUP_INDEX);
+    }
+
+    /**
+     * Constructor.
+     * @param shape the shape of this collider
+     * @param material the material this collider is made of
+     * @param categoryBits the categories this collider belongs to, as a bitfield
+     * @param maskBits the categories this collider may collide with, as a bitfield
+     * @param groupIndex the group this collider belongs to, or 0 for no group
+     */
+    public Collider(Shape shape, Material material, int categoryBits, int maskBits, int groupIndex) {
         // if a null shape is given, assume the shape
         if (shape == null) {
             shape = new Ellipse2D.Double(0, 0, 0, 0);
         }
-        this.shape = shape;
-
-        // determine, based on the type of shape, what rules to use
-        if (shape instanceof Ellipse2D.Double) {
-            Ellipse2D.Double ellipticalShape = (Ellipse2D.Double) shape;
-            projectionRule = new EllipseProjectionRule(ellipticalShape);
-            axisRule = new EllipseAxisRule();
-            vertexSelectionRule = new EllipseVertexSelectionRule(ellipticalShape);
-        } else if (shape instanceof Path2D.Double) {
-            // make sure that our polygon only has straight edges
-            POLYGON_ASSERTION_RULE.assertPolygonalShape((Path2D.Double) shape);
-
-            projectionRule = new PolygonProjectionRule((Path2D.Double) shape);
-            axisRule = new PolygonAxisRule();
-            vertexSelectionRule = new PolygonVertexSelectionRule((Path2D.Double) shape);
-        } else if (shape instanceof Rectangle2D) {
-            Path2D.Double shapePath = new Path2D.Double(shape);
-            projectionRule = new PolygonProjectionRule(shapePath);
-            axisRule = new PolygonAxisRule();
-            vertexSelectionRule = new PolygonVertexSelectionRule(shapePath);
-        } else {
-            throw new IllegalArgumentException("Unknown shape!");
+        geometry = ShapeRegistry.getDefault().intern(shape);
+        children = new Collider[0];
+        childOffsets = new double[0];
+
+        // if a null material is given, assume the material
+        if (material == null) {
+            material = Material.DEFAULT;
+        }
+        this.material = material;
+
+        this.categoryBits = categoryBits;
+        this.maskBits = maskBits;
+        this.groupIndex = groupIndex;
+    }
+
+    /**
+     * Constructor for a compound collider, made of several convex children placed at offsets from the body's
+     * origin. This allows a concave shape to be a single body. The children share the material and collision
+     * filtering of the compound collider.
+     *
+     * @param shapes the shapes of the children, each of which must be convex
+     * @param offsets the offsets of the children in local coordinates, packed as {x0, y0, x1, y1, ...}
+     * @param material the material this collider is made of
+     * @param categoryBits the categories this collider belongs to, as a bitfield
+     * @param maskBits the categories this collider may collide with, as a bitfield
+     * @param groupIndex the group this collider belongs to, or 0 for no group
+     */
+    public Collider(Shape[] shapes, double[] offsets, Material material, int categoryBits, int maskBits,
+                    int groupIndex) {
+        if (shapes.length == 0) {
+            throw new IllegalArgumentException("A compound collider must have at least one child!");
+        }
+        if (offsets.length != shapes.length * 2) {
+            throw new IllegalArgumentException("A compound collider must have one offset per child!");
         }
 
         // if a null material is given, assume the material
@@ -77,6 +113,35 @@ public class Collider {
             material = Material.DEFAULT;
         }
         this.material = material;
+
+        this.categoryBits = categoryBits;
+        this.maskBits = maskBits;
+        this.groupIndex = groupIndex;
+
+        children = new Collider[shapes.length];
+        childOffsets = offsets.clone();
+        ShapeGeometry[] childGeometries = new ShapeGeometry[shapes.length];
+        for (int i = 0; i < shapes.length; i++) {
+            children[i] = new Collider(shapes[i], material, categoryBits, maskBits, groupIndex);
+            childGeometries[i] = children[i].geometry;
+        }
+
+        // the arrangement of the children is particular to this collider, so its geometry is not interned
+        geometry = new ShapeGeometry(childGeometries, childOffsets);
+    }
+
+    /**
+     * Determines whether this collider may collide with another, based on their groups and categories. This is
+     * meant to be checked before any narrowphase work is done.
+     *
+     * @param other the other collider
+     * @return whether the colliders may collide
+     */
+    public boolean canCollideWith(Collider other) {
+        if (groupIndex != 0 && groupIndex == other.groupIndex) {
+            return groupIndex > 0;
+        }
+        return (maskBits & other.categoryBits) != 0 && (categoryBits & other.maskBits) != 0;
     }
 
     // getters
@@ -85,19 +150,101 @@ public class Collider {
         return material;
     }
 
+    public ShapeGeometry getGeometry() {
+        return geometry;
+    }
+
     public Shape getShape() {
-        return shape;
+        return geometry.getShape();
+    }
+
+    public int getShapeType() {
+        return geometry.getShapeType();
+    }
+
+    public double getRadius() {
+        return geometry.getRadius();
     }
 
     public ProjectionRule getProjectionRule() {
-        return projectionRule;
+        return geometry.getProjectionRule();
     }
 
     public AxisRule getAxisRule() {
-        return axisRule;
+        return geometry.getAxisRule();
     }
 
     public VertexSelectionRule getVertexSelectionRule() {
-        return vertexSelectionRule;
+        return geometry.getVertexSelectionRule();
+    }
+
+    /**
+     * @return the packed vertices of the shape in local coordinates; this array must not be modified
+     */
+    public double[] getVertices() {
+        return geometry.getVertices();
+    }
+
+    /**
+     * @return the packed outward edge normals of the shape in local coordinates; this array must not be modified
+     */
+    public double[] getNormals() {
+        return geometry.getNormals();
+    }
+
+    public int getVertexCount() {
+        return geometry.getVertices().length / 2;
+    }
+
+    public SupportRule getSupportRule() {
+        return geometry.getSupportRule();
+    }
+
+    public boolean isCompound() {
+        return geometry.getShapeType() == SHAPE_COMPOUND;
+    }
+
+    /**
+     * @return for compound colliders, the convex children; otherwise, an empty array. This array must not be
+     *         modified
+     */
+    public Collider[] getChildren() {
+        return children;
+    }
+
+    /**
+     * @return for compound colliders, the offsets of the children in local coordinates, packed as
+     *         {x0, y0, x1, y1, ...}; this array must not be modified
+     */
+    public double[] getChildOffsets() {
+        return childOffsets;
+    }
+
+    public int getCategoryBits() {
+        return categoryBits;
+    }
+
+    public int getMaskBits() {
+        return maskBits;
+    }
+
+    public int getGroupIndex() {
+        return groupIndex;
+    }
+
+    public double getLocalMinX() {
+        return geometry.getMinX();
+    }
+
+    public double getLocalMinY() {
+        return geometry.getMinY();
+    }
+
+    public double getLocalMaxX() {
+        return geometry.getMaxX();
+    }
+
+    public double getLocalMaxY() {
+        return geometry.getMaxY();
     }
 }
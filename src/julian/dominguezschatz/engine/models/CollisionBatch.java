@@ -0,0 +1,110 @@
+package julian.dominguezschatz.engine.models;
+
+import java.util.Arrays;
+
+/**
+ * Class: CollisionBatch
+ * Author: Julian Dominguez-Schatz
+ * Date: 2026-10-17
+ * Description: Groups a batch of candidate pairs by the shape types of their bodies, so that the pairs of each group
+ * can be tested one after another, and the same specialized test runs in a tight loop instead of switching between
+ * tests from one pair to the next.
+ *
+ * The pairs are grouped with a counting sort into preallocated arrays, so grouping a batch allocates nothing once
+ * the arrays are large enough. Each pair is tested into its own result, which it keeps from step to step, so the
+ * results are not copied anywhere and the separating axis each pair records is still tried first in its next test.
+ */
+public class CollisionBatch {
+
+    // the number of groups pairs are sorted into, one per ordered pair of shape types
+    public static final int GROUP_COUNT = Collider.SHAPE_TYPE_COUNT * Collider.SHAPE_TYPE_COUNT;
+
+    // the initial number of pairs to allocate space for
+    private static final int INITIAL_CAPACITY = 64;
+
+    // the number of pairs in the batch
+    private int pairCount;
+
+    // the indices of the pairs, sorted by group
+    private int[] order;
+
+    // the index in the order at which each group starts; the last entry is the number of pairs
+    private final int[] groupStart;
+
+    // while grouping, the position at which the next pair of each group is placed
+    private final int[] groupNext;
+
+    // default constructor
+    public CollisionBatch() {
+        groupStart = new int[GROUP_COUNT + 1];
+        groupNext = new int[GROUP_COUNT];
+        order = new int[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Prepares the batch for a set of pairs, and sorts the pairs into groups by the shape types of their bodies.
+     *
+     * @param pairs the pairs, which must not hold compound bodies
+     * @param pairCount the number of pairs
+     */
+    public void group(BodyPair[] pairs, int pairCount) {
+        this.pairCount = pairCount;
+        if (pairCount > order.length) {
+            order = new int[Math.max(pairCount, order.length * 2)];
+        }
+
+        // count the pairs in each group, then turn the counts into starting positions
+        Arrays.fill(groupStart, 0);
+        for (int pair = 0; pair < pairCount; pair++) {
+            groupStart[getGroup(pairs[pair]) + 1]++;
+        }
+        for (int group = 0; group < GROUP_COUNT; group++) {
+            groupStart[group + 1] += groupStart[group];
+        }
+
+        // place each pair after the pairs of its group placed so far
+        System.arraycopy(groupStart, 0, groupNext, 0, GROUP_COUNT);
+        for (int pair = 0; pair < pairCount; pair++) {
+            order[groupNext[getGroup(pairs[pair])]++] = pair;
+        }
+    }
+
+    private static int getGroup(BodyPair pair) {
+        int firstType = pair.getFirst().getCollider().getShapeType();
+        int secondType = pair.getSecond().getCollider().getShapeType();
+        if (firstType >= Collider.SHAPE_TYPE_COUNT || secondType >= Collider.SHAPE_TYPE_COUNT) {
+            throw new IllegalArgumentException("Compound bodies must be split into their parts to be batched!");
+        }
+        return firstType * Collider.SHAPE_TYPE_COUNT + secondType;
+    }
+
+    // getters
+
+    public int getPairCount() {
+        return pairCount;
+    }
+
+    /**
+     * @param position a position in the grouped order
+     * @return the index of the pair at that position
+     */
+    public int getOrderedPair(int position) {
+        return order[position];
+    }
+
+    /**
+     * @param group a group, numbered firstType * Collider.SHAPE_TYPE_COUNT + secondType
+     * @return the position in the grouped order at which the group starts
+     */
+    public int getGroupStart(int group) {
+        return groupStart[group];
+    }
+
+    /**
+     * @param group a group, numbered firstType * Collider.SHAPE_TYPE_COUNT + secondType
+     * @return the position in the grouped order one past the end of the group
+     */
+    public int getGroupEnd(int group) {
+        return groupStart[group + 1];
+    }
+}
@@ -6,15 +6,48 @@ import julian.dominguezschatz.engine.utils.Vector2D;
  * Class: CollisionResult
  * Author: Julian Dominguez-Schatz
  * Date: 22/04/2017
- * Description: Represents information about a collision.
+ * Description: Represents information about a collision. A result may be reused between tests, so that testing
+ * does not need to allocate.
+ *
+ * A collision also has a manifold of up to two contact points, each with the depth of penetration at that point and
+ * an id naming the features of the shapes that produced it. The id of a contact stays the same from step to step as
+ * long as the same features are touching, so it can be used to carry solver state between steps.
  */
 public class CollisionResult {
 
+    // the largest number of contact points in a manifold
+    public static final int MAX_CONTACTS = 2;
+
     // whether a collision occurred
-    private final boolean collision;
+    private boolean collision;
+
+    // the unit direction the first shape must move in to separate the shapes
+    private double normalX;
+    private double normalY;
+
+    // the distance the shapes must move apart by; negative for the speculative contacts of separated shapes,
+    // where it is the gap between them
+    private double depth;
+
+    // the contact points of the manifold, in world coordinates, with the depth and feature id of each
+    private final double[] contactX;
+    private final double[] contactY;
+    private final double[] contactDepth;
+    private final int[] contactId;
+    private int contactCount;
 
-    // a vector sufficient to push the two shapes apart
-    private final Vector2D mtv;
+    // the last axis found to separate the shapes, kept between tests so that it can be tried first next time
+    private double separatingAxisX;
+    private double separatingAxisY;
+    private boolean separatingAxisSet;
+
+    // default constructor
+    public CollisionResult() {
+        contactX = new double[MAX_CONTACTS];
+        contactY = new double[MAX_CONTACTS];
+        contactDepth = new double[MAX_CONTACTS];
+        contactId = new int[MAX_CONTACTS];
+    }
 
     /**
      * Constructor.
@@ -23,8 +56,77 @@ public class CollisionResult {
      * @param mtv a vector sufficient to push the two shapes apart
      */
     public CollisionResult(boolean collision, Vector2D mtv) {
+        this();
+        if (mtv == null) {
+            set(collision, 0, 0, 0);
+        } else {
+            double angle = mtv.getDirectionRadians();
+            set(collision, Math.cos(angle), Math.sin(angle), mtv.getMagnitude());
+        }
+    }
+
+    /**
+     * Replaces the information held by this result, and removes its contact points.
+     *
+     * @param collision whether a collision occurred
+     * @param normalX the x value of the unit direction the first shape must move in to separate the shapes
+     * @param normalY the y value of the unit direction the first shape must move in to separate the shapes
+     * @param depth the distance the shapes must move apart by
+     */
+    public void set(boolean collision, double normalX, double normalY, double depth) {
         this.collision = collision;
-        this.mtv = mtv;
+        this.normalX = normalX;
+        this.normalY = normalY;
+        this.depth = depth;
+        contactCount = 0;
+    }
+
+    /**
+     * Adds a contact point to the manifold, if it is not already full.
+     *
+     * @param x the x value of the point
+     * @param y the y value of the point
+     * @param depth the depth of penetration at the point
+     * @param id the id of the features that produced the point
+     */
+    public void addContact(double x, double y, double depth, int id) {
+        if (contactCount == MAX_CONTACTS) {
+            return;
+        }
+        contactX[contactCount] = x;
+        contactY[contactCount] = y;
+        contactDepth[contactCount] = depth;
+        contactId[contactCount] = id;
+        contactCount++;
+    }
+
+    /**
+     * Reverses the normal, keeping the contact points. This is used when the shapes were tested in the opposite
+     * order.
+     */
+    public void flipNormal() {
+        normalX = -normalX;
+        normalY = -normalY;
+    }
+
+    /**
+     * Records an axis that separates the shapes. Since bodies move little between steps, the same axis is likely
+     * to separate them again in the next test.
+     *
+     * @param axisX the x value of the axis
+     * @param axisY the y value of the axis
+     */
+    public void setSeparatingAxis(double axisX, double axisY) {
+        separatingAxisX = axisX;
+        separatingAxisY = axisY;
+        separatingAxisSet = true;
+    }
+
+    /**
+     * Forgets the recorded separating axis, for example once the shapes are found to overlap.
+     */
+    public void clearSeparatingAxis() {
+        separatingAxisSet = false;
     }
 
     // getters
@@ -33,7 +135,57 @@ public class CollisionResult {
         return collision;
     }
 
+    /**
+     * @return a new vector sufficient to push the two shapes apart, or null if there was no collision
+     */
     public Vector2D getMTV() {
-        return mtv;
+        if (!collision) {
+            return null;
+        }
+        return new Vector2D(Vector2D.CARTESIAN, normalX * depth, normalY * depth);
+    }
+
+    public double getNormalX() {
+        return normalX;
+    }
+
+    public double getNormalY() {
+        return normalY;
+    }
+
+    public double getDepth() {
+        return depth;
+    }
+
+    public int getContactCount() {
+        return contactCount;
+    }
+
+    public double getContactX(int index) {
+        return contactX[index];
+    }
+
+    public double getContactY(int index) {
+        return contactY[index];
+    }
+
+    public double getContactDepth(int index) {
+        return contactDepth[index];
+    }
+
+    public int getContactId(int index) {
+        return contactId[index];
+    }
+
+    public boolean hasSeparatingAxis() {
+        return separatingAxisSet;
+    }
+
+    public double getSeparatingAxisX() {
+        return separatingAxisX;
+    }
+
+    public double getSeparatingAxisY() {
+        return separatingAxisY;
     }
 }
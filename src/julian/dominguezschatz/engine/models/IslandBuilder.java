@@ -0,0 +1,283 @@
+package julian.dominguezschatz.engine.models;
+
+import java.util.Arrays;
+
+/**
+ * Class: IslandBuilder
+ * Author: Julian Dominguez-Schatz
+ * Date: 2026-10-17
+ * Description: Splits the bodies simulated during a step into islands: groups of bodies that touch each other,
+ * directly or through other bodies of the group. Bodies of different islands cannot affect each other during the
+ * step, so each island can be put to sleep, or solved, on its own.
+ *
+ * Islands are found with a union-find over the contacts between the bodies. Static bodies never join islands, since
+ * nothing that happens in one island can move them. Once built, the bodies and contacts are sorted by island with a
+ * counting sort, keeping the order they were added in within each island, so that the islands found do not depend
+ * on anything but that order.
+ */
+public class IslandBuilder {
+
+    // the initial number of bodies and contacts to allocate space for
+    private static final int INITIAL_CAPACITY = 64;
+
+    // the bodies added, in the order they were added
+    private Body[] bodies;
+    private int bodyCount;
+
+    // the parent of each body in the union-find forest, and for each root, the number of bodies in its tree
+    private int[] parents;
+    private int[] sizes;
+
+    // the contacts added, in the order they were added
+    private BodyPair[] contacts;
+    private int contactCount;
+
+    // the number of islands found
+    private int islandCount;
+
+    // the island of each body, and of each contact
+    private int[] bodyIslands;
+    private int[] contactIslands;
+
+    // the bodies and contacts, sorted by island
+    private Body[] orderedBodies;
+    private BodyPair[] orderedContacts;
+
+    // the index in the sorted order at which each island starts; the last used entry is the number of bodies or
+    // contacts
+    private int[] bodyStart;
+    private int[] contactStart;
+
+    // default constructor
+    public IslandBuilder() {
+        allocateBodies(INITIAL_CAPACITY);
+        allocateContacts(INITIAL_CAPACITY);
+    }
+
+    private void allocateBodies(int capacity) {
+        bodies = Arrays.copyOf(bodies == null ? new Body[0] : bodies, capacity);
+        parents = Arrays.copyOf(parents == null ? new int[0] : parents, capacity);
+        sizes = Arrays.copyOf(sizes == null ? new int[0] : sizes, capacity);
+        bodyIslands = new int[capacity];
+        orderedBodies = new Body[capacity];
+        bodyStart = new int[capacity + 1];
+        contactStart = new int[capacity + 1];
+    }
+
+    private void allocateContacts(int capacity) {
+        contacts = Arrays.copyOf(contacts == null ? new BodyPair[0] : contacts, capacity);
+        contactIslands = new int[capacity];
+        orderedContacts = new BodyPair[capacity];
+    }
+
+    /**
+     * Removes every body and contact, so that the islands of a new step can be built.
+     */
+    public void clear() {
+        Arrays.fill(bodies, 0, bodyCount, null);
+        Arrays.fill(orderedBodies, 0, bodyCount, null);
+        Arrays.fill(contacts, 0, contactCount, null);
+        Arrays.fill(orderedContacts, 0, contactCount, null);
+        bodyCount = 0;
+        contactCount = 0;
+        islandCount = 0;
+    }
+
+    /**
+     * Adds a body that is being simulated this step, as an island of its own.
+     * @param body the body, which must not be static
+     */
+    public void addBody(Body body) {
+        if (bodyCount == bodies.length) {
+            allocateBodies(bodyCount * 2);
+        }
+
+        body.setIslandIndex(bodyCount);
+        bodies[bodyCount] = body;
+        parents[bodyCount] = bodyCount;
+        sizes[bodyCount] = 1;
+        bodyCount++;
+    }
+
+    /**
+     * Adds a contact, joining the islands of its bodies. At least one of its bodies must have been added.
+     * @param contact the colliding pair
+     */
+    public void addContact(BodyPair contact) {
+        int first = getIndex(contact.getFirstBody());
+        int second = getIndex(contact.getSecondBody());
+        if (first == -1 && second == -1) {
+            throw new IllegalArgumentException("A contact must have a body that has been added!");
+        }
+
+        if (contactCount == contacts.length) {
+            allocateContacts(contactCount * 2);
+        }
+        contacts[contactCount++] = contact;
+
+        if (first != -1 && second != -1) {
+            union(first, second);
+        }
+    }
+
+    /**
+     * @return the index of a body in this builder, or -1 if it has not been added
+     */
+    private int getIndex(Body body) {
+        int index = body.getIslandIndex();
+        return index < bodyCount && bodies[index] == body ? index : -1;
+    }
+
+    private int find(int index) {
+        // each body visited is pointed at its grandparent, which keeps the trees shallow
+        while (parents[index] != index) {
+            parents[index] = parents[parents[index]];
+            index = parents[index];
+        }
+        return index;
+    }
+
+    private void union(int first, int second) {
+        int firstRoot = find(first);
+        int secondRoot = find(second);
+        if (firstRoot == secondRoot) {
+            return;
+        }
+
+        // the smaller tree is placed under the larger one
+        if (sizes[firstRoot] < sizes[secondRoot]) {
+            int root = firstRoot;
+            firstRoot = secondRoot;
+            secondRoot = root;
+        }
+        parents[secondRoot] = firstRoot;
+        sizes[firstRoot] += sizes[secondRoot];
+    }
+
+    /**
+     * Numbers the islands in the order their first bodies were added, and sorts the bodies and contacts by island.
+     */
+    public void build() {
+        // number each island when its first body is reached, storing the number with the island's root
+        islandCount = 0;
+        Arrays.fill(bodyIslands, 0, bodyCount, -1);
+        for (int i = 0; i < bodyCount; i++) {
+            int root = find(i);
+            if (bodyIslands[root] == -1) {
+                bodyIslands[root] = islandCount++;
+            }
+        }
+        for (int i = 0; i < bodyCount; i++) {
+            bodyIslands[i] = bodyIslands[find(i)];
+        }
+
+        for (int i = 0; i < contactCount; i++) {
+            int index = getIndex(contacts[i].getFirstBody());
+            if (index == -1) {
+                index = getIndex(contacts[i].getSecondBody());
+            }
+            contactIslands[i] = bodyIslands[index];
+        }
+
+        sort(bodies, bodyIslands, bodyCount, orderedBodies, bodyStart);
+        sort(contacts, contactIslands, contactCount, orderedContacts, contactStart);
+    }
+
+    /**
+     * Sorts items by island with a counting sort, keeping the order of the items within each island.
+     *
+     * @param items the items
+     * @param islands the island of each item
+     * @param count the number of items
+     * @param ordered the array the sorted items are written to
+     * @param start the array the index at which each island starts is written to
+     */
+    private <T> void sort(T[] items, int[] islands, int count, T[] ordered, int[] start) {
+        // count the items of each island, then turn the counts into starting positions
+        Arrays.fill(start, 0, islandCount + 1, 0);
+        for (int i = 0; i < count; i++) {
+            start[islands[i] + 1]++;
+        }
+        for (int island = 0; island < islandCount; island++) {
+            start[island + 1] += start[island];
+        }
+
+        // place each item after the items of its island placed so far, using the island's start as a cursor
+        for (int i = 0; i < count; i++) {
+            ordered[start[islands[i]]++] = items[i];
+        }
+
+        // each start has been moved to the start of the next island, so move them back
+        System.arraycopy(start, 0, start, 1, islandCount);
+        start[0] = 0;
+    }
+
+    // getters
+
+    public int getIslandCount() {
+        return islandCount;
+    }
+
+    public int getBodyCount() {
+        return bodyCount;
+    }
+
+    public int getContactCount() {
+        return contactCount;
+    }
+
+    /**
+     * @param position a position in the sorted order of the bodies
+     * @return the body at that position
+     */
+    public Body getBody(int position) {
+        return orderedBodies[position];
+    }
+
+    /**
+     * @return the contacts, sorted by island; this array must not be modified
+     */
+    public BodyPair[] getContacts() {
+        return orderedContacts;
+    }
+
+    /**
+     * @param position a position in the sorted order of the contacts
+     * @return the contact at that position
+     */
+    public BodyPair getContact(int position) {
+        return orderedContacts[position];
+    }
+
+    /**
+     * @param island an island
+     * @return the position in the sorted order of the bodies at which the island starts
+     */
+    public int getBodyStart(int island) {
+        return bodyStart[island];
+    }
+
+    /**
+     * @param island an island
+     * @return the position in the sorted order of the bodies one past the end of the island
+     */
+    public int getBodyEnd(int island) {
+        return bodyStart[island + 1];
+    }
+
+    /**
+     * @param island an island
+     * @return the position in the sorted order of the contacts at which the island starts
+     */
+    public int getContactStart(int island) {
+        return contactStart[island];
+    }
+
+    /**
+     * @param island an island
+     * @return the position in the sorted order of the contacts one past the end of the island
+     */
+    public int getContactEnd(int island) {
+        return contactStart[island + 1];
+    }
+}
@@ -8,6 +8,9 @@ package julian.dominguezschatz.engine.models;
  */
 public class Material {
 
+    // the friction of materials that are not given one, which are frictionless
+    public static final double DEFAULT_FRICTION = 0;
+
     // the default material
     public static final Material DEFAULT = new Material(1, 1);
 
@@ -17,14 +20,32 @@ public class Material {
     // the density of this material, in kg/m^2
     private final double density;
 
+    // the coefficient of friction of this material
+    private final double friction;
+
     /**
-     * Constructor.
+     * Constructor, for a frictionless material.
      * @param restitution how "bouncy" this material is
      * @param density the density of this material, in kg/m^2
      */
     public Material(double restitution, double density) {
+        this(restitution, density, DEFAULT_FRICTION);
+    }
+
+    /**
+     * Constructor.
+     * @param restitution how "bouncy" this material is
+     * @param density the density of this material, in kg/m^2
+     * @param friction the coefficient of friction of this material, where 0 is frictionless
+     */
+    public Material(double restitution, double density, double friction) {
+        if (friction < 0) {
+            throw new IllegalArgumentException("Friction of a material must be >= 0!");
+        }
+
         this.restitution = restitution;
         this.density = density;
+        this.friction = friction;
     }
 
     // getters
@@ -36,4 +57,8 @@ public class Material {
     public double getDensity() {
         return density;
     }
+
+    public double getFriction() {
+        return friction;
+    }
 }
@@ -0,0 +1,203 @@
+package julian.dominguezschatz.engine.models;
+
+import java.util.ArrayList;
+
+/**
+ * Class: PairTable
+ * Author: Julian Dominguez-Schatz
+ * Date: 2026-10-17
+ * Description: Stores the pairs of bodies in a world, keyed by the ids of the two bodies. Pairs persist from step
+ * to step until they are no longer reported by the broadphase.
+ *
+ * This is an open-addressing hash table with linear probing, keyed directly by a primitive long so that lookups do
+ * not box their keys. Removed pairs are kept in a pool and reused, so a world whose pairs come and go does not
+ * allocate once the pool has warmed up.
+ */
+public class PairTable {
+
+    // the initial number of slots; must be a power of two
+    private static final int INITIAL_CAPACITY = 64;
+
+    // the fraction of slots that may be filled before the table grows
+    private static final double MAX_LOAD_FACTOR = 0.5;
+
+    // the key and pair held by each slot; an empty slot holds a null pair
+    private long[] keys;
+    private BodyPair[] pairs;
+
+    // the number of pairs in the table
+    private int size;
+
+    // pairs that have been removed and may be reused
+    private final ArrayList<BodyPair> freePairs;
+
+    // default constructor
+    public PairTable() {
+        keys = new long[INITIAL_CAPACITY];
+        pairs = new BodyPair[INITIAL_CAPACITY];
+        freePairs = new ArrayList<>();
+    }
+
+    /**
+     * @param first a body
+     * @param second another body
+     * @return the key of the pair formed by the two bodies, which does not depend on their order
+     */
+    public static long getKey(Body first, Body second) {
+        long firstId = first.getIDInWorld();
+        long secondId = second.getIDInWorld();
+        if (firstId < secondId) {
+            return (firstId << 32) | secondId;
+        }
+        return (secondId << 32) | firstId;
+    }
+
+    /**
+     * @param first a body
+     * @param second another body
+     * @return the pair formed by the two bodies, or null if there is none
+     */
+    public BodyPair get(Body first, Body second) {
+        long key = getKey(first, second);
+        int mask = pairs.length - 1;
+        for (int slot = hash(key) & mask; pairs[slot] != null; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                return pairs[slot];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @param first a body
+     * @param second another body
+     * @return the pair formed by the two bodies, which is created if there is none
+     */
+    public BodyPair getOrCreate(Body first, Body second) {
+        long key = getKey(first, second);
+        int mask = pairs.length - 1;
+        int slot = hash(key) & mask;
+        for (; pairs[slot] != null; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                return pairs[slot];
+            }
+        }
+
+        if (size + 1 > pairs.length * MAX_LOAD_FACTOR) {
+            grow();
+            return getOrCreate(first, second);
+        }
+
+        BodyPair pair = freePairs.isEmpty() ? new BodyPair() : freePairs.remove(freePairs.size() - 1);
+        if (first.getIDInWorld() < second.getIDInWorld()) {
+            pair.set(first, second, key);
+        } else {
+            pair.set(second, first, key);
+        }
+
+        keys[slot] = key;
+        pairs[slot] = pair;
+        size++;
+        return pair;
+    }
+
+    /**
+     * Removes every pair that has not been tested since a given step. Pairs whose bodies are all asleep or static
+     * are not tested, but are kept, so that their islands start from the impulses they fell asleep with when they
+     * wake.
+     * @param step the current step
+     */
+    public void removeStale(long step) {
+        int slot = 0;
+        while (slot < pairs.length) {
+            // removing a pair may shift another pair into this slot, so the slot is checked again
+            if (pairs[slot] != null && pairs[slot].getLastStep() < step && !isAsleep(pairs[slot])) {
+                removeSlot(slot);
+            } else {
+                slot++;
+            }
+        }
+    }
+
+    /**
+     * @return whether neither body of a pair can move until it is woken, while both are still in a world
+     */
+    private static boolean isAsleep(BodyPair pair) {
+        return isAsleep(pair.getFirstBody()) && isAsleep(pair.getSecondBody());
+    }
+
+    private static boolean isAsleep(Body body) {
+        return body.getWorld() != null && (body.isStatic() || !body.isAwake());
+    }
+
+    /**
+     * Removes every pair.
+     */
+    public void clear() {
+        for (int slot = 0; slot < pairs.length; slot++) {
+            if (pairs[slot] != null) {
+                pairs[slot].clear();
+                freePairs.add(pairs[slot]);
+                pairs[slot] = null;
+            }
+        }
+        size = 0;
+    }
+
+    /**
+     * Empties a slot, then shifts back any later pairs in the same probe sequence so that they remain reachable.
+     * @param slot the slot to empty
+     */
+    private void removeSlot(int slot) {
+        pairs[slot].clear();
+        freePairs.add(pairs[slot]);
+        size--;
+
+        int mask = pairs.length - 1;
+        int hole = slot;
+        for (int next = (slot + 1) & mask; pairs[next] != null; next = (next + 1) & mask) {
+            int ideal = hash(keys[next]) & mask;
+
+            // the pair may only move back if its ideal slot is not between the hole and its current slot
+            if (((next - ideal) & mask) >= ((next - hole) & mask)) {
+                keys[hole] = keys[next];
+                pairs[hole] = pairs[next];
+                hole = next;
+            }
+        }
+        pairs[hole] = null;
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        BodyPair[] oldPairs = pairs;
+
+        keys = new long[oldKeys.length * 2];
+        pairs = new BodyPair[oldPairs.length * 2];
+
+        int mask = pairs.length - 1;
+        for (int oldSlot = 0; oldSlot < oldPairs.length; oldSlot++) {
+            if (oldPairs[oldSlot] == null) {
+                continue;
+            }
+
+            int slot = hash(oldKeys[oldSlot]) & mask;
+            while (pairs[slot] != null) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = oldKeys[oldSlot];
+            pairs[slot] = oldPairs[oldSlot];
+        }
+    }
+
+    private static int hash(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32));
+    }
+
+    // getters
+
+    public int size() {
+        return size;
+    }
+}
@@ -0,0 +1,314 @@
+package julian.dominguezschatz.engine.models;
+
+import julian.dominguezschatz.engine.models.rules.collision.AxisRule;
+import julian.dominguezschatz.engine.models.rules.collision.EllipseAxisRule;
+import julian.dominguezschatz.engine.models.rules.collision.EllipseProjectionRule;
+import julian.dominguezschatz.engine.models.rules.collision.EllipseSupportRule;
+import julian.dominguezschatz.engine.models.rules.collision.EllipseVertexSelectionRule;
+import julian.dominguezschatz.engine.models.rules.collision.PolygonAssertionRule;
+import julian.dominguezschatz.engine.models.rules.collision.PolygonAxisRule;
+import julian.dominguezschatz.engine.models.rules.collision.PolygonProjectionRule;
+import julian.dominguezschatz.engine.models.rules.collision.PolygonSupportRule;
+import julian.dominguezschatz.engine.models.rules.collision.PolygonVertexSelectionRule;
+import julian.dominguezschatz.engine.models.rules.collision.ProjectionRule;
+import julian.dominguezschatz.engine.models.rules.collision.SupportRule;
+import julian.dominguezschatz.engine.models.rules.collision.VertexSelectionRule;
+import julian.dominguezschatz.engine.utils.ShapeUtils;
+
+import java.awt.Shape;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Ellipse2D;
+import java.awt.geom.Path2D;
+import java.awt.geom.Rectangle2D;
+
+/**
+ * Class: ShapeGeometry
+ * Author: Julian Dominguez-Schatz
+ * Date: 2026-10-17
+ * Description: Represents the immutable, precomputed geometry of a shape in local coordinates: its vertices and
+ * normals, its bounds, its mass properties, and the rules used to collide it. Geometry is interned by a
+ * ShapeRegistry, so every body with the same shape shares one instance and only keeps its own transform.
+ */
+public class ShapeGeometry {
+
+    // a rule used to verify aspects of a polygon's shape
+    private static final PolygonAssertionRule POLYGON_ASSERTION_RULE = new PolygonAssertionRule();
+
+    // the polygon rules do not depend on the shape, so every polygon shares them
+    private static final ProjectionRule POLYGON_PROJECTION_RULE = new PolygonProjectionRule();
+    private static final AxisRule POLYGON_AXIS_RULE = new PolygonAxisRule();
+    private static final VertexSelectionRule POLYGON_VERTEX_SELECTION_RULE = new PolygonVertexSelectionRule();
+    private static final SupportRule POLYGON_SUPPORT_RULE = new PolygonSupportRule();
+
+    // the circle rules only read the body, so every circle shares them too; support points depend on the radii of
+    // the ellipse, so each ellipse keeps its own support rule
+    private static final ProjectionRule ELLIPSE_PROJECTION_RULE = new EllipseProjectionRule();
+    private static final AxisRule ELLIPSE_AXIS_RULE = new EllipseAxisRule();
+    private static final VertexSelectionRule ELLIPSE_VERTEX_SELECTION_RULE = new EllipseVertexSelectionRule();
+
+    // the shape this geometry was computed from
+    private final Shape shape;
+
+    // the kind of shape, one of the shape types of Collider
+    private final int shapeType;
+
+    // for circles, the radius of the shape; for other shapes, 0
+    private final double radius;
+
+    // for polygons, the vertices and outward edge normals of the shape, packed as {x0, y0, x1, y1, ...}; for other
+    // shapes, these are empty
+    private final double[] vertices;
+    private final double[] normals;
+
+    // the bounds of the shape
+    private final double minX;
+    private final double minY;
+    private final double maxX;
+    private final double maxY;
+
+    // the mass properties of the shape at a density of 1: its area, its centroid, and its moment of inertia about
+    // the centroid
+    private final double area;
+    private final double centroidX;
+    private final double centroidY;
+    private final double inertia;
+
+    // rules used for collision detection that vary based on shape; these are null for compound shapes. Geometry is
+    // shared between bodies in every world, so these rules must keep no state between calls
+    private final ProjectionRule projectionRule;
+    private final AxisRule axisRule;
+    private final VertexSelectionRule vertexSelectionRule;
+    private final SupportRule supportRule;
+
+    /**
+     * Constructor for the geometry of a convex shape.
+     * @param shape the shape, which must not be modified afterwards
+     */
+    ShapeGeometry(Shape shape) {
+        this.shape = shape;
+
+        // determine, based on the type of shape, what rules to use
+        if (shape instanceof Ellipse2D.Double) {
+            Ellipse2D.Double ellipticalShape = (Ellipse2D.Double) shape;
+            projectionRule = ELLIPSE_PROJECTION_RULE;
+            axisRule = ELLIPSE_AXIS_RULE;
+            vertexSelectionRule = ELLIPSE_VERTEX_SELECTION_RULE;
+            supportRule = new EllipseSupportRule(ellipticalShape);
+            shapeType = Collider.SHAPE_CIRCLE;
+            radius = ellipticalShape.getWidth() / 2.0;
+            vertices = new double[0];
+            normals = new double[0];
+
+            double radiusX = ellipticalShape.getWidth() / 2.0;
+            double radiusY = ellipticalShape.getHeight() / 2.0;
+            area = Math.PI * radiusX * radiusY;
+
+            centroidX = ellipticalShape.getCenterX();
+            centroidY = ellipticalShape.getCenterY();
+            inertia = area * (radiusX * radiusX + radiusY * radiusY) / 4;
+        } else if (shape instanceof Path2D.Double || shape instanceof Rectangle2D) {
+            // make sure that our polygon only has straight edges
+            if (shape instanceof Path2D.Double) {
+                POLYGON_ASSERTION_RULE.assertPolygonalShape((Path2D.Double) shape);
+            }
+
+            projectionRule = POLYGON_PROJECTION_RULE;
+            axisRule = POLYGON_AXIS_RULE;
+            vertexSelectionRule = POLYGON_VERTEX_SELECTION_RULE;
+            supportRule = POLYGON_SUPPORT_RULE;
+            shapeType = Collider.SHAPE_POLYGON;
+            radius = 0;
+
+            // the shape is flattened once here, rather than walking its path for every collision test
+            vertices = ShapeUtils.getPolygonVertices(shape);
+            normals = ShapeUtils.getPolygonNormals(vertices);
+
+            /*
+             * Sum the signed area, first moments and second moments of the triangles formed by each edge and the
+             * origin. The signs cancel out, whichever way the polygon is wound.
+             */
+            double signedArea = 0;
+            double momentX = 0;
+            double momentY = 0;
+            double secondMoment = 0;
+            int count = vertices.length / 2;
+            for (int i = 0; i < count; i++) {
+                int next = (i + 1) % count;
+                double x1 = vertices[i * 2];
+                double y1 = vertices[i * 2 + 1];
+                double x2 = vertices[next * 2];
+                double y2 = vertices[next * 2 + 1];
+                double cross = x1 * y2 - x2 * y1;
+
+                signedArea += cross / 2;
+                momentX += cross * (x1 + x2) / 6;
+                momentY += cross * (y1 + y2) / 6;
+                secondMoment += cross * (x1 * x1 + x1 * x2 + x2 * x2 + y1 * y1 + y1 * y2 + y2 * y2) / 12;
+            }
+
+            if (signedArea == 0) {
+                area = 0;
+                centroidX = 0;
+                centroidY = 0;
+                inertia = 0;
+            } else {
+                area = Math.abs(signedArea);
+                centroidX = momentX / signedArea;
+                centroidY = momentY / signedArea;
+
+                // move the second moment from the origin to the centroid
+                inertia = Math.abs(secondMoment) - area * (centroidX * centroidX + centroidY * centroidY);
+            }
+        } else {
+            throw new IllegalArgumentException("Unknown shape!");
+        }
+
+        Rectangle2D bounds = shape.getBounds2D();
+        minX = bounds.getMinX();
+        minY = bounds.getMinY();
+        maxX = bounds.getMaxX();
+        maxY = bounds.getMaxY();
+    }
+
+    /**
+     * Constructor for the geometry of a compound shape, which is made of convex children placed at offsets. The
+     * compound geometry is only used for bounds, mass properties and rendering; the children are what is collided.
+     *
+     * @param children the geometry of each child
+     * @param offsets the offsets of the children, packed as {x0, y0, x1, y1, ...}
+     */
+    ShapeGeometry(ShapeGeometry[] children, double[] offsets) {
+        projectionRule = null;
+        axisRule = null;
+        vertexSelectionRule = null;
+        supportRule = null;
+        shapeType = Collider.SHAPE_COMPOUND;
+        radius = 0;
+        vertices = new double[0];
+        normals = new double[0];
+
+        // the shape is only used for rendering, so the children are simply drawn together
+        Path2D.Double compoundShape = new Path2D.Double();
+        double boundsMinX = Double.POSITIVE_INFINITY;
+        double boundsMinY = Double.POSITIVE_INFINITY;
+        double boundsMaxX = Double.NEGATIVE_INFINITY;
+        double boundsMaxY = Double.NEGATIVE_INFINITY;
+        double totalArea = 0;
+        double momentX = 0;
+        double momentY = 0;
+        for (int i = 0; i < children.length; i++) {
+            ShapeGeometry child = children[i];
+            double offsetX = offsets[i * 2];
+            double offsetY = offsets[i * 2 + 1];
+            compoundShape.append(child.shape.getPathIterator(
+                    AffineTransform.getTranslateInstance(offsetX, offsetY)), false);
+
+            boundsMinX = Math.min(boundsMinX, child.minX + offsetX);
+            boundsMinY = Math.min(boundsMinY, child.minY + offsetY);
+            boundsMaxX = Math.max(boundsMaxX, child.maxX + offsetX);
+            boundsMaxY = Math.max(boundsMaxY, child.maxY + offsetY);
+
+            totalArea += child.area;
+            momentX += child.area * (child.centroidX + offsetX);
+            momentY += child.area * (child.centroidY + offsetY);
+        }
+        shape = compoundShape;
+        minX = boundsMinX;
+        minY = boundsMinY;
+        maxX = boundsMaxX;
+        maxY = boundsMaxY;
+
+        area = totalArea;
+        centroidX = totalArea == 0 ? 0 : momentX / totalArea;
+        centroidY = totalArea == 0 ? 0 : momentY / totalArea;
+
+        // each child's inertia is moved from its own centroid to the compound centroid
+        double totalInertia = 0;
+        for (int i = 0; i < children.length; i++) {
+            ShapeGeometry child = children[i];
+            double dx = child.centroidX + offsets[i * 2] - centroidX;
+            double dy = child.centroidY + offsets[i * 2 + 1] - centroidY;
+            totalInertia += child.inertia + child.area * (dx * dx + dy * dy);
+        }
+        inertia = totalInertia;
+    }
+
+    // getters
+
+    public Shape getShape() {
+        return shape;
+    }
+
+    public int getShapeType() {
+        return shapeType;
+    }
+
+    public double getRadius() {
+        return radius;
+    }
+
+    /**
+     * @return the packed vertices of the shape; this array must not be modified
+     */
+    public double[] getVertices() {
+        return vertices;
+    }
+
+    /**
+     * @return the packed outward edge normals of the shape; this array must not be modified
+     */
+    public double[] getNormals() {
+        return normals;
+    }
+
+    public double getMinX() {
+        return minX;
+    }
+
+    public double getMinY() {
+        return minY;
+    }
+
+    public double getMaxX() {
+        return maxX;
+    }
+
+    public double getMaxY() {
+        return maxY;
+    }
+
+    public double getArea() {
+        return area;
+    }
+
+    public double getCentroidX() {
+        return centroidX;
+    }
+
+    public double getCentroidY() {
+        return centroidY;
+    }
+
+    /**
+     * @return the moment of inertia of the shape about its centroid, at a density of 1
+     */
+    public double getInertia() {
+        return inertia;
+    }
+
+    public ProjectionRule getProjectionRule() {
+        return projectionRule;
+    }
+
+    public AxisRule getAxisRule() {
+        return axisRule;
+    }
+
+    public VertexSelectionRule getVertexSelectionRule() {
+        return vertexSelectionRule;
+    }
+
+    public SupportRule getSupportRule() {
+        return supportRule;
+    }
+}
@@ -0,0 +1,72 @@
+package julian.dominguezschatz.engine.models;
+
+import java.awt.Shape;
+import java.awt.geom.RectangularShape;
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Class: ShapeRegistry
+ * Author: Julian Dominguez-Schatz
+ * Date: 2026-10-17
+ * Description: Interns the geometry of shapes, so that bodies with the same shape share one precomputed
+ * ShapeGeometry instead of each computing and storing their own.
+ *
+ * Rectangles and ellipses are compared by value, and are copied when first registered, so that the registered
+ * geometry is not affected if the caller later changes the shape it passed in. Paths do not define equality, so
+ * they are compared by identity, and a path must not be modified once it has been registered.
+ *
+ * A shape only stays registered while some collider still uses its geometry. The geometry holds the registered
+ * shape, and the registry only holds both weakly, so shapes that are no longer used, such as the pieces of a
+ * decomposed path, are dropped once their colliders are.
+ */
+public class ShapeRegistry {
+
+    // the registry used by colliders unless another is given
+    private static final ShapeRegistry DEFAULT = new ShapeRegistry();
+
+    // the geometry of each shape registered and still in use; both the keys and the values are weak
+    private final Map<Shape, WeakReference<ShapeGeometry>> geometries;
+
+    // default constructor
+    public ShapeRegistry() {
+        geometries = new WeakHashMap<>();
+    }
+
+    /**
+     * @return the registry used by colliders unless another is given
+     */
+    public static ShapeRegistry getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Finds the geometry of a shape, computing it if no equal shape has been registered yet.
+     *
+     * @param shape the shape, which must be convex
+     * @return the geometry of the shape
+     */
+    public synchronized ShapeGeometry intern(Shape shape) {
+        WeakReference<ShapeGeometry> reference = geometries.get(shape);
+        ShapeGeometry geometry = reference == null ? null : reference.get();
+        if (geometry == null) {
+            // shapes compared by value are copied, so that changing the caller's shape cannot change the geometry
+            Shape copy = shape instanceof RectangularShape ? (Shape) ((RectangularShape) shape).clone() : shape;
+            geometry = new ShapeGeometry(copy);
+
+            // an entry whose geometry was collected may still hold an equal key, which must not be kept
+            geometries.remove(copy);
+            geometries.put(copy, new WeakReference<>(geometry));
+        }
+        return geometry;
+    }
+
+    /**
+     * @return the number of distinct shapes registered, which may include shapes that are no longer used but have
+     *         not been collected yet
+     */
+    public synchronized int size() {
+        return geometries.size();
+    }
+}
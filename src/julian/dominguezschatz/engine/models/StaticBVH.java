@@ -0,0 +1,236 @@
+package julian.dominguezschatz.engine.models;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Class: StaticBVH
+ * Author: Julian Dominguez-Schatz
+ * Date: 2026-10-17
+ * Description: Represents an immutable bounding volume hierarchy over bodies that never move, such as the static
+ * bodies of a world, or the children of a compound body in its local coordinates. The hierarchy is built once,
+ * top-down, by splitting the bodies at the median of the longest axis of their centers.
+ *
+ * Nodes are stored in depth-first order in parallel arrays: the first child of a node directly follows it, and
+ * the index of the second child is stored separately. Leaves refer to a range of the body array.
+ */
+public class StaticBVH {
+
+    // the largest number of bodies a leaf may hold
+    private static final int MAX_LEAF_SIZE = 4;
+
+    // the bodies in the hierarchy, ordered so that each leaf refers to a contiguous range
+    private final Body[] bodies;
+
+    // the bounds of each body, in the same order as the body array
+    private final double[] bodyMinX;
+    private final double[] bodyMinY;
+    private final double[] bodyMaxX;
+    private final double[] bodyMaxY;
+
+    // the bounds of each node
+    private final double[] minX;
+    private final double[] minY;
+    private final double[] maxX;
+    private final double[] maxY;
+
+    // for internal nodes, the index of the second child; for leaves, -1
+    private final int[] secondChild;
+
+    // for leaves, the range of bodies held
+    private final int[] start;
+    private final int[] count;
+
+    // the number of nodes in use
+    private int nodeCount;
+
+    // used to traverse the hierarchy without recursion
+    private int[] stack;
+
+    /**
+     * Constructor.
+     * @param staticBodies the bodies to build the hierarchy over; these must not move afterwards
+     */
+    public StaticBVH(List<Body> staticBodies) {
+        int size = staticBodies.size();
+        bodies = staticBodies.toArray(new Body[size]);
+        bodyMinX = new double[size];
+        bodyMinY = new double[size];
+        bodyMaxX = new double[size];
+        bodyMaxY = new double[size];
+
+        // a binary tree with at least one body per leaf has fewer than 2n nodes
+        int capacity = Math.max(1, 2 * size);
+        minX = new double[capacity];
+        minY = new double[capacity];
+        maxX = new double[capacity];
+        maxY = new double[capacity];
+        secondChild = new int[capacity];
+        start = new int[capacity];
+        count = new int[capacity];
+        stack = new int[32];
+
+        for (int i = 0; i < size; i++) {
+            Body body = bodies[i];
+            bodyMinX[i] = body.getMinX();
+            bodyMinY[i] = body.getMinY();
+            bodyMaxX[i] = body.getMaxX();
+            bodyMaxY[i] = body.getMaxY();
+        }
+
+        if (size > 0) {
+            build(0, size);
+        }
+    }
+
+    /**
+     * Builds the subtree containing a range of bodies.
+     * @param from the first body in the range
+     * @param to one past the last body in the range
+     * @return the index of the subtree's root
+     */
+    private int build(int from, int to) {
+        int node = nodeCount++;
+
+        // determine the bounds of the node, and of the centers of its bodies
+        minX[node] = minY[node] = Double.POSITIVE_INFINITY;
+        maxX[node] = maxY[node] = Double.NEGATIVE_INFINITY;
+        double centerMinX = Double.POSITIVE_INFINITY;
+        double centerMinY = Double.POSITIVE_INFINITY;
+        double centerMaxX = Double.NEGATIVE_INFINITY;
+        double centerMaxY = Double.NEGATIVE_INFINITY;
+        for (int i = from; i < to; i++) {
+            minX[node] = Math.min(minX[node], bodyMinX[i]);
+            minY[node] = Math.min(minY[node], bodyMinY[i]);
+            maxX[node] = Math.max(maxX[node], bodyMaxX[i]);
+            maxY[node] = Math.max(maxY[node], bodyMaxY[i]);
+
+            double centerX = (bodyMinX[i] + bodyMaxX[i]) / 2;
+            double centerY = (bodyMinY[i] + bodyMaxY[i]) / 2;
+            centerMinX = Math.min(centerMinX, centerX);
+            centerMinY = Math.min(centerMinY, centerY);
+            centerMaxX = Math.max(centerMaxX, centerX);
+            centerMaxY = Math.max(centerMaxY, centerY);
+        }
+
+        if (to - from <= MAX_LEAF_SIZE) {
+            secondChild[node] = -1;
+            start[node] = from;
+            count[node] = to - from;
+            return node;
+        }
+
+        // split the bodies at the median of the longest axis
+        int middle = (from + to) >>> 1;
+        select(from, to, middle, centerMaxX - centerMinX >= centerMaxY - centerMinY);
+
+        build(from, middle);
+        secondChild[node] = build(middle, to);
+        return node;
+    }
+
+    /**
+     * Partially sorts a range of bodies, so that the body at a given index is the one that would be there if the
+     * range were sorted by center, with smaller bodies before it and larger bodies after it.
+     *
+     * @param from the first body in the range
+     * @param to one past the last body in the range
+     * @param index the index to select
+     * @param alongX whether to sort along the x axis rather than the y axis
+     */
+    private void select(int from, int to, int index, boolean alongX) {
+        int low = from;
+        int high = to - 1;
+        while (low < high) {
+            double pivot = center(low + ((high - low) >>> 1), alongX);
+            int i = low;
+            int j = high;
+            while (i <= j) {
+                while (center(i, alongX) < pivot) {
+                    i++;
+                }
+                while (center(j, alongX) > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    swap(i++, j--);
+                }
+            }
+
+            if (index <= j) {
+                high = j;
+            } else if (index >= i) {
+                low = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    private double center(int i, boolean alongX) {
+        return alongX ? bodyMinX[i] + bodyMaxX[i] : bodyMinY[i] + bodyMaxY[i];
+    }
+
+    private void swap(int i, int j) {
+        Body body = bodies[i];
+        bodies[i] = bodies[j];
+        bodies[j] = body;
+
+        swap(bodyMinX, i, j);
+        swap(bodyMinY, i, j);
+        swap(bodyMaxX, i, j);
+        swap(bodyMaxY, i, j);
+    }
+
+    private static void swap(double[] array, int i, int j) {
+        double value = array[i];
+        array[i] = array[j];
+        array[j] = value;
+    }
+
+    /**
+     * Finds every body in the hierarchy whose bounds overlap a region.
+     *
+     * @param queryMinX the minimum x value of the region
+     * @param queryMinY the minimum y value of the region
+     * @param queryMaxX the maximum x value of the region
+     * @param queryMaxY the maximum y value of the region
+     * @param result the list the bodies found are added to
+     */
+    public void query(double queryMinX, double queryMinY, double queryMaxX, double queryMaxY, List<Body> result) {
+        if (nodeCount == 0) {
+            return;
+        }
+
+        int top = 0;
+        stack[top++] = 0;
+        while (top > 0) {
+            int node = stack[--top];
+            if (queryMinX > maxX[node] || minX[node] > queryMaxX
+                    || queryMinY > maxY[node] || minY[node] > queryMaxY) {
+                continue;
+            }
+
+            if (secondChild[node] == -1) {
+                for (int i = start[node]; i < start[node] + count[node]; i++) {
+                    if (!(queryMinX > bodyMaxX[i] || bodyMinX[i] > queryMaxX
+                            || queryMinY > bodyMaxY[i] || bodyMinY[i] > queryMaxY)) {
+                        result.add(bodies[i]);
+                    }
+                }
+            } else {
+                if (top + 2 > stack.length) {
+                    stack = Arrays.copyOf(stack, stack.length * 2);
+                }
+                stack[top++] = secondChild[node];
+                stack[top++] = node + 1;
+            }
+        }
+    }
+
+    // getters
+
+    public int getBodyCount() {
+        return bodies.length;
+    }
+}
@@ -2,11 +2,23 @@ package julian.dominguezschatz.engine.models;
 
 import julian.dominguezschatz.engine.models.rules.MotionRule;
 import julian.dominguezschatz.engine.models.rules.VelocityVerletMotionRule;
+import julian.dominguezschatz.engine.models.rules.broadphase.BroadphaseRule;
+import julian.dominguezschatz.engine.models.rules.broadphase.PairHandler;
+import julian.dominguezschatz.engine.models.rules.broadphase.UniformGridBroadphaseRule;
 import julian.dominguezschatz.engine.models.rules.collision.CollisionRule;
 import julian.dominguezschatz.engine.models.rules.collision.SATDiscreteCollisionRule;
+import julian.dominguezschatz.engine.models.rules.collision.SpeculativeContactRule;
+import julian.dominguezschatz.engine.models.rules.collision.TimeOfImpactRule;
+import julian.dominguezschatz.engine.models.rules.solver.SequentialImpulseSolverRule;
+import julian.dominguezschatz.engine.models.rules.solver.SolverRule;
+import julian.dominguezschatz.engine.utils.Vector2D;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 /**
  * Class: World
@@ -17,11 +29,120 @@ import java.util.Iterator;
 public class World {
 
     private static final MotionRule motionRule = new VelocityVerletMotionRule();
-    private static final CollisionRule collisionRule = new SATDiscreteCollisionRule();
+
+    // the cell size of the default broadphase grid
+    private static final double DEFAULT_GRID_CELL_SIZE = 100;
+
+    // the speeds below which a body is at rest, in m/s and deg/s
+    private static final double LINEAR_SLEEP_TOLERANCE = 1;
+    private static final double ANGULAR_SLEEP_TOLERANCE = 2;
+
+    // how long every body of an island must stay at rest before the island is put to sleep, in milliseconds
+    private static final double TIME_TO_SLEEP = 500;
+
+    // the number of contacts below which a group of islands is solved by one task rather than split further
+    private static final int MIN_TASK_CONTACTS = 128;
+
+    // the initial number of candidate pairs to allocate space for
+    private static final int INITIAL_CANDIDATE_CAPACITY = 64;
+
+    // the rule used to find pairs of bodies that could be colliding
+    private BroadphaseRule broadphaseRule;
+
+    // the rule used to test and resolve collisions; it keeps scratch buffers, so each world has its own
+    private CollisionRule collisionRule;
+
+    // the rule used to resolve the contacts found each step, once they have all been found
+    private SolverRule solverRule;
+
+    // the candidate pairs found by the broadphase, in the order they were found, waiting to be tested as a batch
+    private BodyPair[] candidatePairs;
+    private int candidateCount;
+
+    // groups the candidate pairs by the shape types of their bodies, so that each group is tested in a loop of its own
+    private final CollisionBatch collisionBatch;
+
+    // the colliding pairs found this step, waiting to be solved
+    private final ArrayList<BodyPair> contactPairs;
+
+    // groups the bodies simulated each step by the contacts between them
+    private final IslandBuilder islandBuilder;
+
+    // whether islands that have been at rest for a while are put to sleep
+    private boolean sleepingAllowed;
+
+    // the pool islands are solved on, or null to solve them on the thread that steps this world
+    private ForkJoinPool solverPool;
+
+    // finds when bullets first touch other bodies along their motion
+    private final TimeOfImpactRule timeOfImpactRule;
+
+    // the bodies found near the path of the bullet being tested, and the collision resolved for it
+    private final ArrayList<Body> sweepCandidates;
+    private final CollisionResult timeOfImpactResult;
+
+    // creates contacts between bodies that will touch during the next step, if enabled
+    private final SpeculativeContactRule speculativeContactRule;
+    private boolean speculativeContacts;
+
+    // the duration of the step being simulated, in milliseconds
+    private double stepDeltaTime;
+
+    // the convex parts of the two bodies being tested, when either is compound
+    private final ArrayList<Body> firstParts;
+    private final ArrayList<Body> secondParts;
+
+    // the pairs of bodies found by the broadphase, kept from step to step
+    private final PairTable pairTable;
+
+    // tests and resolves the candidate pairs found by the broadphase
+    private final PairHandler collisionHandler = new PairHandler() {
+        @Override
+        public void handlePair(Body body, Body secondBody) {
+            // sleeping bodies are not tested against each other
+            if (!body.isAwake() && !secondBody.isAwake()) {
+                return;
+            }
+
+            // filtered pairs are rejected before any other work is done
+            if (!body.getCollider().canCollideWith(secondBody.getCollider())) {
+                return;
+            }
+
+            // some broadphase rules report pairs whose exact bounds do not overlap
+            if (!body.boundsOverlap(secondBody)) {
+                return;
+            }
+
+            // two bodies should only collide once per frame
+            BodyPair pair = pairTable.getOrCreate(body, secondBody);
+            if (pair.getLastStep() == stepCount) {
+                return;
+            }
+            pair.setLastStep(stepCount);
+
+            if (body.isCompound() || secondBody.isCompound()) {
+                collideParts(body, secondBody);
+                return;
+            }
+
+            // the pair is tested later, along with the other candidates, into its own result
+            addCandidate(pair);
+        }
+    };
 
     // the bodies in this world
     private ArrayList<Body> bodies;
 
+    // the bodies in this world with infinite mass, which never move
+    private final ArrayList<Body> staticBodies;
+
+    // a hierarchy over the static bodies, or null if it must be rebuilt
+    private StaticBVH staticBVH;
+
+    // the static bodies found near the dynamic body being tested
+    private final ArrayList<Body> staticCandidates;
+
     // the bodies that were removed from the world this frame
     private ArrayList<Body> removedBodies;
 
@@ -32,6 +153,9 @@ public class World {
     // the latest assigned ID
     private int latestId;
 
+    // the number of steps that have been simulated
+    private long stepCount;
+
     /**
      * Default constructor.
      * @param width the width of the world
@@ -43,75 +167,543 @@ public class World {
 
         bodies = new ArrayList<>();
         removedBodies = new ArrayList<>();
+        staticBodies = new ArrayList<>();
+        staticCandidates = new ArrayList<>();
+        broadphaseRule = new UniformGridBroadphaseRule(width, height, DEFAULT_GRID_CELL_SIZE);
+        collisionRule = new SATDiscreteCollisionRule();
+        solverRule = new SequentialImpulseSolverRule();
+        candidatePairs = new BodyPair[INITIAL_CANDIDATE_CAPACITY];
+        collisionBatch = new CollisionBatch();
+        contactPairs = new ArrayList<>();
+        islandBuilder = new IslandBuilder();
+        sleepingAllowed = true;
+        timeOfImpactRule = new TimeOfImpactRule();
+        sweepCandidates = new ArrayList<>();
+        timeOfImpactResult = new CollisionResult();
+        speculativeContactRule = new SpeculativeContactRule();
+        firstParts = new ArrayList<>();
+        secondParts = new ArrayList<>();
+        pairTable = new PairTable();
     }
 
     /**
      * Spawns a body within the world. This means it will be automatically updated and will collide
      * with other world objects.
+     *
+     * Bodies with infinite mass are treated as static: they are not integrated, and are placed in a hierarchy
+     * that is only rebuilt when the set of static bodies changes. Such bodies must not be moved once added.
      * @param body the body to add
      */
     public void addBody(Body body) {
         body.addToWorld(this, latestId++);
+
+        // the children of compound bodies need ids of their own, so that their pairs can be stored
+        for (Body child : body.getChildren()) {
+            child.addToWorld(this, latestId++);
+        }
         bodies.add(body);
+
+        if (body.isStatic()) {
+            staticBodies.add(body);
+            staticBVH = null;
+        } else {
+            broadphaseRule.addBody(body);
+        }
     }
 
     /**
-     * Steps the physics simulation. This includes integrating time and resolving collisions (and later constraints).
+     * Steps the physics simulation. This includes integrating time, finding collisions, and then solving the
+     * contacts of every collision found together.
      *
      * @param deltaTime the elapsed time in milliseconds
      */
     public void step(double deltaTime) {
+        stepCount++;
+        stepDeltaTime = deltaTime;
+
         Iterator<Body> iterator = bodies.iterator();
 
         while (iterator.hasNext()) {
             Body body = iterator.next();
             if (body.isDead() && body.isDestroyOnDeath()) {
                 body.removeFromWorld();
+                if (body.isStatic()) {
+                    staticBodies.remove(body);
+                    staticBVH = null;
+                } else {
+                    broadphaseRule.removeBody(body);
+                }
 
                 removedBodies.add(body);
                 iterator.remove();
                 continue;
             }
 
+            // static bodies never move, and sleeping bodies stay where they fell asleep
+            if (body.isStatic() || !body.isAwake()) {
+                continue;
+            }
+
             body.updateTransform();
+            body.markStepStart();
             motionRule.integrate(deltaTime, body);
             body.updateTransform();
+
+            // the bounds cover the next step's motion too, so that pairs about to touch are found
+            if (speculativeContacts) {
+                Vector2D velocity = body.getVelocity();
+                body.sweepBounds(velocity.getX() * deltaTime / 1000.0, velocity.getY() * deltaTime / 1000.0);
+            }
         }
 
-        for (Body body : bodies) {
-            for (Body secondBody : bodies) {
-                // the same body cannot collide with itself
-                if (secondBody.equals(body)) {
+        // bullets are stopped where they first touch something, before they can pass through it
+        solveTimeOfImpact();
+
+        // only the pairs found by the broadphase need to be tested; they are tested before the static bodies are,
+        // so that bodies they wake are tested against the static bodies too
+        broadphaseRule.findPairs(collisionHandler);
+        testCandidates();
+
+        // the static bodies are only tested against the dynamic bodies, never against each other
+        StaticBVH staticBVH = getStaticBVH();
+        if (staticBVH.getBodyCount() > 0) {
+            for (Body body : bodies) {
+                if (body.isStatic() || !body.isAwake()) {
                     continue;
                 }
 
-                // two bodies should only collide once per frame
-                if (!body.shouldCollide(secondBody)) {
-                    continue;
+                staticBVH.query(body.getMinX(), body.getMinY(), body.getMaxX(), body.getMaxY(),
+                        staticCandidates);
+                for (int i = 0; i < staticCandidates.size(); i++) {
+                    collisionHandler.handlePair(body, staticCandidates.get(i));
                 }
-                if (!secondBody.shouldCollide(body)) {
-                    continue;
+                staticCandidates.clear();
+            }
+            testCandidates();
+        }
+
+        // the contacts are solved once every one of them is known, island by island
+        buildIslands();
+        solveIslands();
+        contactPairs.clear();
+
+        if (sleepingAllowed) {
+            updateSleep(deltaTime);
+        }
+
+        // forget the pairs that the broadphase no longer reports
+        pairTable.removeStale(stepCount);
+
+        // prepare the bodies for next frame
+        for (Body body : bodies) {
+            body.clearForces();
+        }
+    }
+
+    /**
+     * Groups the bodies simulated this step into islands, joined by the contacts found between them.
+     */
+    private void buildIslands() {
+        islandBuilder.clear();
+        for (Body body : bodies) {
+            if (!body.isStatic() && body.isAwake()) {
+                islandBuilder.addBody(body);
+            }
+        }
+        for (int i = 0; i < contactPairs.size(); i++) {
+            islandBuilder.addContact(contactPairs.get(i));
+        }
+        islandBuilder.build();
+    }
+
+    /**
+     * Solves the contacts of every island. Islands share no dynamic body, so when a pool has been given, groups of
+     * islands are solved on it at once. The contacts are sorted by island, and each group is a range of them, so the
+     * result is the same as solving every contact on this thread, whichever threads solve which groups.
+     */
+    private void solveIslands() {
+        int contactCount = islandBuilder.getContactCount();
+        if (solverPool == null || islandBuilder.getIslandCount() < 2 || contactCount <= MIN_TASK_CONTACTS) {
+            solverRule.solve(islandBuilder.getContacts(), 0, contactCount, stepDeltaTime);
+        } else {
+            solverPool.invoke(new SolveIslandsTask(0, islandBuilder.getIslandCount()));
+        }
+    }
+
+    /**
+     * Solves a group of consecutive islands, splitting it in two while it has enough contacts to be worth sharing
+     * between threads.
+     */
+    private class SolveIslandsTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        // the first island of the group, and the island one past the last
+        private final int firstIsland;
+        private final int endIsland;
+
+        /**
+         * Default constructor.
+         * @param firstIsland the first island of the group
+         * @param endIsland the island one past the last of the group
+         */
+        private SolveIslandsTask(int firstIsland, int endIsland) {
+            this.firstIsland = firstIsland;
+            this.endIsland = endIsland;
+        }
+
+        @Override
+        protected void compute() {
+            int start = islandBuilder.getContactStart(firstIsland);
+            int end = islandBuilder.getContactEnd(endIsland - 1);
+            if (endIsland - firstIsland == 1 || end - start <= MIN_TASK_CONTACTS) {
+                solverRule.solve(islandBuilder.getContacts(), start, end, stepDeltaTime);
+                return;
+            }
+
+            // split at the island closest to halfway through the contacts, keeping an island on each side
+            int low = firstIsland + 1;
+            int high = endIsland - 1;
+            int middle = start + (end - start) / 2;
+            while (low < high) {
+                int island = (low + high) >>> 1;
+                if (islandBuilder.getContactStart(island) < middle) {
+                    low = island + 1;
+                } else {
+                    high = island;
                 }
+            }
+            invokeAll(new SolveIslandsTask(firstIsland, low), new SolveIslandsTask(low, endIsland));
+        }
+    }
+
+    /**
+     * Advances the time each body has been at rest, and puts to sleep every island whose bodies have all been at
+     * rest for long enough.
+     *
+     * @param deltaTime the elapsed time in milliseconds
+     */
+    private void updateSleep(double deltaTime) {
+        for (int island = 0; island < islandBuilder.getIslandCount(); island++) {
+            int start = islandBuilder.getBodyStart(island);
+            int end = islandBuilder.getBodyEnd(island);
 
-                // ensure these two bodies will not collide again
-                secondBody.addFrameCollision(body);
-                body.addFrameCollision(secondBody);
+            double islandSleepTime = Double.POSITIVE_INFINITY;
+            for (int i = start; i < end; i++) {
+                Body body = islandBuilder.getBody(i);
+                Vector2D velocity = body.getVelocity();
+                boolean resting = velocity.getX() * velocity.getX() + velocity.getY() * velocity.getY()
+                        <= LINEAR_SLEEP_TOLERANCE * LINEAR_SLEEP_TOLERANCE
+                        && Math.abs(body.getAngularVelocity()) <= ANGULAR_SLEEP_TOLERANCE;
+                body.setSleepTime(resting ? body.getSleepTime() + deltaTime : 0);
+                islandSleepTime = Math.min(islandSleepTime, body.getSleepTime());
+            }
 
-                // test for a collision
-                CollisionResult result = collisionRule.isCollision(body, secondBody);
-                if (result.isCollision()) {
-                    collisionRule.resolveCollision(body, secondBody, result.getMTV());
+            if (islandSleepTime >= TIME_TO_SLEEP) {
+                Body[] sleepingIsland = new Body[end - start];
+                for (int i = start; i < end; i++) {
+                    sleepingIsland[i - start] = islandBuilder.getBody(i);
+                    sleepingIsland[i - start].sleep(sleepingIsland);
                 }
             }
         }
+    }
 
-        // prepare the bodies for next frame
+    /**
+     * Wakes the bodies of a pair that has started to interact, along with the islands they fell asleep with.
+     *
+     * @param body the first body
+     * @param secondBody the second body
+     */
+    private static void wake(Body body, Body secondBody) {
+        if (!body.isAwake()) {
+            body.setAwake(true);
+        }
+        if (!secondBody.isAwake()) {
+            secondBody.setAwake(true);
+        }
+    }
+
+    /**
+     * Adds a pair to the candidates waiting to be tested.
+     * @param pair the pair, which must not hold compound bodies
+     */
+    private void addCandidate(BodyPair pair) {
+        if (candidateCount == candidatePairs.length) {
+            candidatePairs = Arrays.copyOf(candidatePairs, candidateCount * 2);
+        }
+        candidatePairs[candidateCount++] = pair;
+    }
+
+    /**
+     * Tests the candidate pairs found so far as one batch, grouped by the shape types of their bodies, then keeps the
+     * pairs that have contacts to be solved. The pairs are kept in the order they were found rather than the order
+     * they were tested in, so grouping them does not change the order their contacts are solved in.
+     */
+    private void testCandidates() {
+        if (candidateCount == 0) {
+            return;
+        }
+
+        collisionRule.isCollision(candidatePairs, candidateCount, collisionBatch);
+        for (int i = 0; i < candidateCount; i++) {
+            BodyPair pair = candidatePairs[i];
+            candidatePairs[i] = null;
+            if (updateContacts(pair)) {
+                contactPairs.add(pair);
+                wake(pair.getFirstBody(), pair.getSecondBody());
+            }
+        }
+        candidateCount = 0;
+    }
+
+    /**
+     * Carries the impulses accumulated at the contacts of a tested pair over to its new contacts. The pair was
+     * tested with its bodies in the pair's order, so its contacts keep the same ids from step to step. When
+     * speculative contacts are enabled, a pair that is not colliding but will touch during the next step is given
+     * speculative contacts first.
+     *
+     * @param pair the tested pair
+     * @return whether the pair has contacts to be solved
+     */
+    private boolean updateContacts(BodyPair pair) {
+        if (pair.getResult().isCollision()
+                || speculativeContacts && speculativeContactRule.isContact(pair.getFirstBody(), pair.getFirst(),
+                        pair.getSecondBody(), pair.getSecond(), stepDeltaTime, pair.getResult())) {
+            pair.matchImpulses();
+            return true;
+        }
+
+        pair.clearImpulses();
+        return false;
+    }
+
+    /**
+     * Finds the candidate pairs of parts of two bodies, at least one of which is compound. Only the parts whose
+     * bounds overlap are tested, each as a pair of its own, but the collisions found are solved between the bodies
+     * themselves.
+     *
+     * @param body the first body
+     * @param secondBody the second body
+     */
+    private void collideParts(Body body, Body secondBody) {
+        body.queryParts(secondBody.getMinX(), secondBody.getMinY(), secondBody.getMaxX(), secondBody.getMaxY(),
+                firstParts);
+        for (int i = 0; i < firstParts.size(); i++) {
+            Body part = firstParts.get(i);
+            secondBody.queryParts(part.getMinX(), part.getMinY(), part.getMaxX(), part.getMaxY(), secondParts);
+            for (int j = 0; j < secondParts.size(); j++) {
+                Body secondPart = secondParts.get(j);
+
+                // the pairs of parts are kept too, so that their results are reused from step to step
+                BodyPair pair = pairTable.getOrCreate(part, secondPart);
+                pair.setLastStep(stepCount);
+                addCandidate(pair);
+            }
+            secondParts.clear();
+        }
+        firstParts.clear();
+    }
+
+    /**
+     * Moves each bullet back to the point in its motion this step where it first touched another body, and resolves
+     * the collision there. Bullets are not tested against each other, and the other bodies are treated as if they
+     * had been at their new positions for the whole step.
+     */
+    private void solveTimeOfImpact() {
         for (Body body : bodies) {
-            body.clearForces();
-            body.clearFrameCollisions();
+            // sleeping bullets did not move this step, and their step start is left over from when they did
+            if (!body.isBullet() || body.isStatic() || !body.isAwake()) {
+                continue;
+            }
+
+            double startX = body.getStepStartX();
+            double startY = body.getStepStartY();
+            double displacementX = body.getPosition().getX() - startX;
+            double displacementY = body.getPosition().getY() - startY;
+            if (displacementX == 0 && displacementY == 0) {
+                continue;
+            }
+
+            // only the bodies near the bounds swept by the bullet could be hit
+            double sweptMinX = Math.min(body.getMinX(), body.getMinX() - displacementX);
+            double sweptMinY = Math.min(body.getMinY(), body.getMinY() - displacementY);
+            double sweptMaxX = Math.max(body.getMaxX(), body.getMaxX() - displacementX);
+            double sweptMaxY = Math.max(body.getMaxY(), body.getMaxY() - displacementY);
+            query(sweptMinX, sweptMinY, sweptMaxX, sweptMaxY, sweepCandidates);
+            body.queryParts(sweptMinX, sweptMinY, sweptMaxX, sweptMaxY, firstParts);
+
+            Body firstHit = null;
+            double firstTime = 1;
+            double normalX = 0;
+            double normalY = 0;
+            for (int i = 0; i < sweepCandidates.size(); i++) {
+                Body other = sweepCandidates.get(i);
+                if (other == body || other.isBullet() || !body.getCollider().canCollideWith(other.getCollider())) {
+                    continue;
+                }
+
+                // compound bodies are swept part by part
+                other.queryParts(sweptMinX, sweptMinY, sweptMaxX, sweptMaxY, secondParts);
+                for (int j = 0; j < firstParts.size(); j++) {
+                    for (int k = 0; k < secondParts.size(); k++) {
+                        double time = timeOfImpactRule.getTimeOfImpact(firstParts.get(j), displacementX,
+                                displacementY, secondParts.get(k));
+                        if (time != TimeOfImpactRule.NO_IMPACT && time < firstTime) {
+                            firstHit = other;
+                            firstTime = time;
+                            normalX = timeOfImpactRule.getNormalX();
+                            normalY = timeOfImpactRule.getNormalY();
+                        }
+                    }
+                }
+                secondParts.clear();
+            }
+            sweepCandidates.clear();
+            firstParts.clear();
+
+            if (firstHit != null) {
+                body.setPosition(startX + firstTime * displacementX, startY + firstTime * displacementY);
+                body.updateTransform();
+
+                // the bodies are touching rather than overlapping, so only the impulse needs to be applied
+                timeOfImpactResult.set(true, normalX, normalY, 0);
+                wake(body, firstHit);
+                collisionRule.resolveCollision(body, firstHit, timeOfImpactResult);
+            }
         }
     }
 
+    /**
+     * Finds every body whose bounds overlap a region. Dynamic bodies are found as of the last step.
+     *
+     * @param minX the minimum x value of the region
+     * @param minY the minimum y value of the region
+     * @param maxX the maximum x value of the region
+     * @param maxY the maximum y value of the region
+     * @param result the list the bodies found are added to
+     */
+    public void query(double minX, double minY, double maxX, double maxY, List<Body> result) {
+        broadphaseRule.query(minX, minY, maxX, maxY, result);
+        getStaticBVH().query(minX, minY, maxX, maxY, result);
+    }
+
+    /**
+     * @return the hierarchy over the static bodies, which is rebuilt if the static bodies have changed
+     */
+    private StaticBVH getStaticBVH() {
+        if (staticBVH == null) {
+            staticBVH = new StaticBVH(staticBodies);
+        }
+        return staticBVH;
+    }
+
+    /**
+     * Changes the rule used to find pairs of bodies that could be colliding. The dynamic bodies already in this
+     * world are moved from the old rule to the new rule, so the old rule is left empty and can be reused.
+     * @param broadphaseRule the new broadphase rule
+     */
+    public void setBroadphaseRule(BroadphaseRule broadphaseRule) {
+        for (Body body : bodies) {
+            if (!body.isStatic()) {
+                this.broadphaseRule.removeBody(body);
+                broadphaseRule.addBody(body);
+            }
+        }
+        this.broadphaseRule = broadphaseRule;
+    }
+
+    public BroadphaseRule getBroadphaseRule() {
+        return broadphaseRule;
+    }
+
+    /**
+     * Changes the rule used to test and resolve collisions, such as a GJK rule in place of the default SAT
+     * rule. Rules keep scratch state, so a rule must not be shared with another world.
+     * @param collisionRule the new collision rule
+     */
+    public void setCollisionRule(CollisionRule collisionRule) {
+        if (collisionRule == null) {
+            throw new IllegalArgumentException("Collision rule must not be null!");
+        }
+        this.collisionRule = collisionRule;
+    }
+
+    public CollisionRule getCollisionRule() {
+        return collisionRule;
+    }
+
+    /**
+     * Changes the rule used to resolve the contacts found each step.
+     * @param solverRule the new solver rule
+     */
+    public void setSolverRule(SolverRule solverRule) {
+        if (solverRule == null) {
+            throw new IllegalArgumentException("Solver rule must not be null!");
+        }
+        this.solverRule = solverRule;
+    }
+
+    public SolverRule getSolverRule() {
+        return solverRule;
+    }
+
+    public TimeOfImpactRule getTimeOfImpactRule() {
+        return timeOfImpactRule;
+    }
+
+    /**
+     * Enables or disables speculative contacts. When enabled, the bounds of each dynamic body are grown by its
+     * velocity over a step, and pairs that are not yet touching but are approaching fast enough are given contacts
+     * that the solver uses to stop them from passing through each other during the next step. This stops most
+     * tunnelling for bodies that are not fast enough to need to be bullets, at close to the cost of discrete
+     * collision detection.
+     * @param speculativeContacts whether speculative contacts are enabled
+     */
+    public void setSpeculativeContacts(boolean speculativeContacts) {
+        this.speculativeContacts = speculativeContacts;
+    }
+
+    public boolean isSpeculativeContacts() {
+        return speculativeContacts;
+    }
+
+    /**
+     * Enables or disables sleeping. When enabled, bodies that touch each other are grouped into islands each step,
+     * and an island whose bodies have all been at rest for a while is put to sleep: its bodies are no longer
+     * integrated or tested against each other or static bodies. A sleeping island is woken when an awake body
+     * touches it, or when a force is applied to one of its bodies. Disabling sleeping wakes every body.
+     * @param sleepingAllowed whether sleeping is enabled
+     */
+    public void setSleepingAllowed(boolean sleepingAllowed) {
+        this.sleepingAllowed = sleepingAllowed;
+        if (!sleepingAllowed) {
+            for (Body body : bodies) {
+                body.setAwake(true);
+            }
+        }
+    }
+
+    public boolean isSleepingAllowed() {
+        return sleepingAllowed;
+    }
+
+    /**
+     * Changes the pool that islands are solved on. Islands share no dynamic body, so with a pool, the islands of a
+     * large scene are solved on several threads at once. The result does not depend on the pool, or on whether one
+     * is used. The pool is only used from within step, which still returns once every island has been solved.
+     * Each island is solved by a single thread; a single large island is only split between threads by a solver
+     * rule that can do so, such as a {@link SequentialImpulseSolverRule} given a pool of its own.
+     * @param solverPool the pool to solve islands on, or null to solve them on the thread that steps this world
+     */
+    public void setSolverPool(ForkJoinPool solverPool) {
+        this.solverPool = solverPool;
+    }
+
+    public ForkJoinPool getSolverPool() {
+        return solverPool;
+    }
+
     public double getWidth() {
         return width;
     }
@@ -124,6 +716,14 @@ public class World {
         return bodies;
     }
 
+    public PairTable getPairTable() {
+        return pairTable;
+    }
+
+    public ArrayList<Body> getStaticBodies() {
+        return staticBodies;
+    }
+
     public ArrayList<Body> getRemovedBodies() {
         return removedBodies;
     }
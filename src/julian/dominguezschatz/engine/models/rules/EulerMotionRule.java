@@ -37,8 +37,7 @@ public class EulerMotionRule implements MotionRule {
         angularVelocity += angularAcceleration * deltaTimeInSeconds;
         body.setAngularVelocity(angularVelocity);
 
-        double angle = body.getAngle();
-        angle += angularVelocity * deltaTimeInSeconds;
-        body.setAngle(angle);
+        // bodies turn about their center of mass
+        body.rotate(angularVelocity * deltaTimeInSeconds);
     }
 }
@@ -39,8 +39,7 @@ public class VelocityVerletMotionRule implements MotionRule {
         double angularVelocity = body.getAngularVelocity();
         body.setAngularVelocity(angularVelocity + (angularAcceleration * deltaTimeInSeconds));
 
-        double angle = body.getAngle();
-        angle += angularVelocity * deltaTimeInSeconds + angularAcceleration * halfDeltaTimeInSecondsSquared;
-        body.setAngle(angle);
+        // bodies turn about their center of mass
+        body.rotate(angularVelocity * deltaTimeInSeconds + angularAcceleration * halfDeltaTimeInSecondsSquared);
     }
 }
@@ -0,0 +1,55 @@
+package julian.dominguezschatz.engine.models.rules.broadphase;
+
+import julian.dominguezschatz.engine.models.Body;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Class: AllPairsBroadphaseRule
+ * Author: Julian Dominguez-Schatz
+ * Date: 2026-10-17
+ * Description: Represents a broadphase rule that reports every pair of bodies. This is O(n^2), but has no
+ * overhead, so it remains useful for very small worlds and for checking the results of the other rules.
+ */
+public class AllPairsBroadphaseRule implements BroadphaseRule {
+
+    // the bodies this rule tracks
+    private final ArrayList<Body> bodies;
+
+    // constructor
+    public AllPairsBroadphaseRule() {
+        bodies = new ArrayList<>();
+    }
+
+    @Override
+    public void addBody(Body body) {
+        bodies.add(body);
+    }
+
+    @Override
+    public void removeBody(Body body) {
+        bodies.remove(body);
+    }
+
+    @Override
+    public void findPairs(PairHandler handler) {
+        int count = bodies.size();
+        for (int i = 0; i < count; i++) {
+            Body body = bodies.get(i);
+            for (int j = i + 1; j < count; j++) {
+                handler.handlePair(body, bodies.get(j));
+            }
+        }
+    }
+
+    @Override
+    public void query(double minX, double minY, double maxX, double maxY, List<Body> result) {
+        for (Body body : bodies) {
+            if (!(minX > body.getMaxX() || body.getMinX() > maxX
+                    || minY > body.getMaxY() || body.getMinY() > maxY)) {
+                result.add(body);
+            }
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package julian.dominguezschatz.engine.models.rules.broadphase;
+
+import julian.dominguezschatz.engine.models.Body;
+
+import java.util.List;
+
+/**
+ * Class: BroadphaseRule
+ * Author: Julian Dominguez-Schatz
+ * Date: 2026-10-17
+ * Description: Represents a rule that cheaply determines which pairs of bodies could be colliding, so that only
+ * those pairs need to be tested by a collision rule.
+ *
+ * Children of this class are rule objects (part of the model).
+ */
+public interface BroadphaseRule {
+
+    void addBody(Body body);
+    void removeBody(Body body);
+
+    /**
+     * Brings this rule up to date with the current state of its bodies, then reports every pair of bodies that
+     * could be colliding. Each pair is reported at most once per call.
+     *
+     * @param handler the handler that receives each candidate pair
+     */
+    void findPairs(PairHandler handler);
+
+    /**
+     * Finds every body whose bounds overlap a region, as of the last time pairs were found.
+     *
+     * @param minX the minimum x value of the region
+     * @param minY the minimum y value of the region
+     * @param maxX the maximum x value of the region
+     * @param maxY the maximum y value of the region
+     * @param result the list the bodies found are added to
+     */
+    void query(double minX, double minY, double maxX, double maxY, List<Body> result);
+
+}
@@ -0,0 +1,104 @@
+package julian.dominguezschatz.engine.models.rules.broadphase;
+
+import julian.dominguezschatz.engine.models.AABBTree;
+import julian.dominguezschatz.engine.models.Body;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Class: DynamicTreeBroadphaseRule
+ * Author: Julian Dominguez-Schatz
+ * Date: 2026-10-17
+ * Description: Represents a broadphase rule backed by a dynamic AABB tree. Unlike a grid, the tree adapts to the
+ * size of each body, so it performs well when bodies vary greatly in size.
+ */
+public class DynamicTreeBroadphaseRule implements BroadphaseRule {
+
+    // the default distance each body's bounds are fattened by
+    private static final double DEFAULT_MARGIN = 10;
+
+    // the tree containing the bodies
+    private final AABBTree tree;
+
+    // the bodies this rule tracks, and the id of the leaf holding each one
+    private final ArrayList<Body> bodies;
+    private int[] proxies;
+
+    // default constructor
+    public DynamicTreeBroadphaseRule() {
+        this(DEFAULT_MARGIN);
+    }
+
+    /**
+     * Constructor.
+     * @param margin the distance each body's bounds are fattened by
+     */
+    public DynamicTreeBroadphaseRule(double margin) {
+        tree = new AABBTree(margin);
+        bodies = new ArrayList<>();
+        proxies = new int[16];
+    }
+
+    @Override
+    public void addBody(Body body) {
+        if (bodies.size() == proxies.length) {
+            proxies = Arrays.copyOf(proxies, proxies.length * 2);
+        }
+
+        proxies[bodies.size()] = tree.createProxy(body,
+                body.getMinX(), body.getMinY(), body.getMaxX(), body.getMaxY());
+        bodies.add(body);
+    }
+
+    @Override
+    public void removeBody(Body body) {
+        int index = bodies.indexOf(body);
+        if (index == -1) {
+            return;
+        }
+
+        tree.destroyProxy(proxies[index]);
+
+        // move the last body into the removed body's place
+        int last = bodies.size() - 1;
+        bodies.set(index, bodies.get(last));
+        proxies[index] = proxies[last];
+        bodies.remove(last);
+    }
+
+    @Override
+    public void findPairs(PairHandler handler) {
+        // only the bodies that moved outside of their fattened bounds are reinserted
+        for (int i = 0; i < bodies.size(); i++) {
+            Body body = bodies.get(i);
+            tree.moveProxy(proxies[i], body.getMinX(), body.getMinY(), body.getMaxX(), body.getMaxY());
+        }
+
+        tree.findPairs(handler);
+    }
+
+    @Override
+    public void query(double minX, double minY, double maxX, double maxY, List<Body> result) {
+        int start = result.size();
+        tree.query(minX, minY, maxX, maxY, result);
+
+        // the tree only knows the fattened bounds, so remove the bodies that do not actually overlap
+        int kept = start;
+        for (int i = start; i < result.size(); i++) {
+            Body body = result.get(i);
+            if (!(minX > body.getMaxX() || body.getMinX() > maxX
+                    || minY > body.getMaxY() || body.getMinY() > maxY)) {
+                result.set(kept++, result.get(i));
+            }
+        }
+        while (result.size() > kept) {
+            result.remove(result.size() - 1);
+        }
+    }
+
+    public AABBTree getTree() {
+        return tree;
+    }
+}
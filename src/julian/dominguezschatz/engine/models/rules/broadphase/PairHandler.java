@@ -0,0 +1,15 @@
+package julian.dominguezschatz.engine.models.rules.broadphase;
+
+import julian.dominguezschatz.engine.models.Body;
+
+/**
+ * Class: PairHandler
+ * Author: Julian Dominguez-Schatz
+ * Date: 2026-10-17
+ * Description: Receives the candidate pairs found by a broadphase rule.
+ */
+public interface PairHandler {
+
+    void handlePair(Body first, Body second);
+
+}
@@ -0,0 +1,17 @@
+package julian.dominguezschatz.engine.models.rules.broadphase;
+
+import julian.dominguezschatz.engine.models.Body;
+
+/**
+ * Class: PairListener
+ * Author: Julian Dominguez-Schatz
+ * Date: 2026-10-17
+ * Description: Receives notifications when a broadphase rule that tracks pairs between steps finds a new pair, or
+ * when an existing pair stops overlapping.
+ */
+public interface PairListener {
+
+    void pairAdded(Body first, Body second);
+    void pairRemoved(Body first, Body second);
+
+}
@@ -0,0 +1,373 @@
+package julian.dominguezschatz.engine.models.rules.broadphase;
+
+import julian.dominguezschatz.engine.models.Body;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Class: QuadtreeBroadphaseRule
+ * Author: Julian Dominguez-Schatz
+ * Date: 2026-10-17
+ * Description: Represents a broadphase rule backed by a loose quadtree covering the world.
+ *
+ * A node only splits once it holds more bodies than its bucket size, so the tree is deep where bodies are
+ * clustered (such as a pile on the ground) and shallow elsewhere. Each node's bounds are "loose": they extend past
+ * its cell by half the cell's size on every side. A body is stored in the deepest node whose cell contains its
+ * center and whose loose bounds contain the whole body, so a body never needs to be stored in more than one node.
+ *
+ * The tree is rebuilt every step from pooled arrays, so it does not allocate once it has grown to the size of the
+ * world.
+ */
+public class QuadtreeBroadphaseRule implements BroadphaseRule {
+
+    // the defaults used for the shape of the tree
+    private static final int DEFAULT_MAX_DEPTH = 8;
+    private static final int DEFAULT_BUCKET_SIZE = 8;
+
+    // the initial number of bodies and nodes to allocate space for
+    private static final int INITIAL_CAPACITY = 16;
+
+    // dimensions of the world
+    private final double width;
+    private final double height;
+
+    // the depth past which nodes may not split
+    private final int maxDepth;
+
+    // the number of bodies a node may hold before it splits
+    private final int bucketSize;
+
+    // the bodies this rule tracks
+    private final ArrayList<Body> bodies;
+
+    // the bounds of each body, indexed in the same order as the body list
+    private double[] minX;
+    private double[] minY;
+    private double[] maxX;
+    private double[] maxY;
+
+    // the next body in the same node as each body, or -1
+    private int[] nextInNode;
+
+    // the cell of each node, as a center and half-extents
+    private double[] centerX;
+    private double[] centerY;
+    private double[] halfWidth;
+    private double[] halfHeight;
+
+    // the first of each node's four children, or -1 for a leaf
+    private int[] firstChild;
+
+    // the first body in each node and the number of bodies in each node
+    private int[] head;
+    private int[] count;
+
+    // the depth of each node
+    private int[] depth;
+
+    // the number of nodes in use
+    private int nodeCount;
+
+    // whether bodies have been added or removed since the tree was last built
+    private boolean dirty;
+
+    // used to traverse the tree without recursion
+    private int[] stack;
+
+    /**
+     * Constructor.
+     * @param width the width of the world
+     * @param height the height of the world
+     */
+    public QuadtreeBroadphaseRule(double width, double height) {
+        this(width, height, DEFAULT_MAX_DEPTH, DEFAULT_BUCKET_SIZE);
+    }
+
+    /**
+     * Constructor.
+     * @param width the width of the world
+     * @param height the height of the world
+     * @param maxDepth the depth past which nodes may not split
+     * @param bucketSize the number of bodies a node may hold before it splits
+     */
+    public QuadtreeBroadphaseRule(double width, double height, int maxDepth, int bucketSize) {
+        if (maxDepth < 0) {
+            throw new IllegalArgumentException("Maximum depth must be >= 0!");
+        }
+        if (bucketSize < 1) {
+            throw new IllegalArgumentException("Bucket size must be >= 1!");
+        }
+
+        this.width = width;
+        this.height = height;
+        this.maxDepth = maxDepth;
+        this.bucketSize = bucketSize;
+
+        bodies = new ArrayList<>();
+        minX = new double[INITIAL_CAPACITY];
+        minY = new double[INITIAL_CAPACITY];
+        maxX = new double[INITIAL_CAPACITY];
+        maxY = new double[INITIAL_CAPACITY];
+        nextInNode = new int[INITIAL_CAPACITY];
+
+        centerX = new double[INITIAL_CAPACITY];
+        centerY = new double[INITIAL_CAPACITY];
+        halfWidth = new double[INITIAL_CAPACITY];
+        halfHeight = new double[INITIAL_CAPACITY];
+        firstChild = new int[INITIAL_CAPACITY];
+        head = new int[INITIAL_CAPACITY];
+        count = new int[INITIAL_CAPACITY];
+        depth = new int[INITIAL_CAPACITY];
+
+        stack = new int[INITIAL_CAPACITY];
+    }
+
+    @Override
+    public void addBody(Body body) {
+        bodies.add(body);
+        dirty = true;
+    }
+
+    @Override
+    public void removeBody(Body body) {
+        bodies.remove(body);
+        dirty = true;
+    }
+
+    @Override
+    public void findPairs(PairHandler handler) {
+        build();
+
+        /*
+         * Since the nodes' bounds are loose, bodies in neighbouring nodes may overlap, so each body queries the
+         * tree. The pair is reported by the body with the lower index.
+         */
+        for (int first = 0; first < bodies.size(); first++) {
+            int top = 0;
+            stack[top++] = 0;
+            while (top > 0) {
+                int node = stack[--top];
+                if (!overlapsLooseBounds(node, minX[first], minY[first], maxX[first], maxY[first])) {
+                    continue;
+                }
+
+                for (int second = head[node]; second != -1; second = nextInNode[second]) {
+                    if (second > first && overlaps(first, second)) {
+                        handler.handlePair(bodies.get(first), bodies.get(second));
+                    }
+                }
+
+                if (firstChild[node] != -1) {
+                    top = pushChildren(node, top);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void query(double queryMinX, double queryMinY, double queryMaxX, double queryMaxY, List<Body> result) {
+        if (dirty) {
+            build();
+        }
+        if (nodeCount == 0) {
+            return;
+        }
+
+        int top = 0;
+        stack[top++] = 0;
+        while (top > 0) {
+            int node = stack[--top];
+            if (!overlapsLooseBounds(node, queryMinX, queryMinY, queryMaxX, queryMaxY)) {
+                continue;
+            }
+
+            for (int i = head[node]; i != -1; i = nextInNode[i]) {
+                if (!(queryMinX > maxX[i] || minX[i] > queryMaxX || queryMinY > maxY[i] || minY[i] > queryMaxY)) {
+                    result.add(bodies.get(i));
+                }
+            }
+
+            if (firstChild[node] != -1) {
+                top = pushChildren(node, top);
+            }
+        }
+    }
+
+    /**
+     * Rebuilds the tree from the current bounds of the bodies.
+     */
+    private void build() {
+        dirty = false;
+
+        int bodyCount = bodies.size();
+        if (minX.length < bodyCount) {
+            int capacity = bodyCount * 2;
+            minX = new double[capacity];
+            minY = new double[capacity];
+            maxX = new double[capacity];
+            maxY = new double[capacity];
+            nextInNode = new int[capacity];
+        }
+
+        nodeCount = 0;
+        int root = createNode(width / 2, height / 2, width / 2, height / 2, 0);
+
+        for (int i = 0; i < bodyCount; i++) {
+            Body body = bodies.get(i);
+            minX[i] = body.getMinX();
+            minY[i] = body.getMinY();
+            maxX[i] = body.getMaxX();
+            maxY[i] = body.getMaxY();
+
+            insert(root, i);
+        }
+    }
+
+    /**
+     * Inserts a body into the deepest node that can hold it, splitting a leaf if it becomes too full.
+     * @param node the node to start at
+     * @param body the index of the body
+     */
+    private void insert(int node, int body) {
+        while (firstChild[node] != -1) {
+            int child = getChildFor(node, body);
+            if (child == -1) {
+                break;
+            }
+            node = child;
+        }
+
+        link(node, body);
+        if (firstChild[node] == -1 && count[node] > bucketSize && depth[node] < maxDepth) {
+            split(node);
+        }
+    }
+
+    /**
+     * Creates the children of a leaf, then moves each of the leaf's bodies into a child if it fits.
+     * @param node the leaf to split
+     */
+    private void split(int node) {
+        double childHalfWidth = halfWidth[node] / 2;
+        double childHalfHeight = halfHeight[node] / 2;
+        int childDepth = depth[node] + 1;
+
+        // the children must be consecutive, so they are created before reading any of the node's arrays again
+        int child = createNode(centerX[node] - childHalfWidth, centerY[node] - childHalfHeight,
+                childHalfWidth, childHalfHeight, childDepth);
+        createNode(centerX[node] + childHalfWidth, centerY[node] - childHalfHeight,
+                childHalfWidth, childHalfHeight, childDepth);
+        createNode(centerX[node] - childHalfWidth, centerY[node] + childHalfHeight,
+                childHalfWidth, childHalfHeight, childDepth);
+        createNode(centerX[node] + childHalfWidth, centerY[node] + childHalfHeight,
+                childHalfWidth, childHalfHeight, childDepth);
+        firstChild[node] = child;
+
+        int body = head[node];
+        head[node] = -1;
+        count[node] = 0;
+        while (body != -1) {
+            int next = nextInNode[body];
+            insert(node, body);
+            body = next;
+        }
+    }
+
+    /**
+     * @param node an internal node
+     * @param body the index of a body
+     * @return the child whose cell contains the body's center and whose loose bounds contain the whole body,
+     *         or -1 if there is none
+     */
+    private int getChildFor(int node, int body) {
+        double bodyCenterX = (minX[body] + maxX[body]) / 2;
+        double bodyCenterY = (minY[body] + maxY[body]) / 2;
+
+        int child = firstChild[node];
+        if (bodyCenterX >= centerX[node]) {
+            child += 1;
+        }
+        if (bodyCenterY >= centerY[node]) {
+            child += 2;
+        }
+
+        if (minX[body] < centerX[child] - 2 * halfWidth[child] || maxX[body] > centerX[child] + 2 * halfWidth[child]
+                || minY[body] < centerY[child] - 2 * halfHeight[child]
+                || maxY[body] > centerY[child] + 2 * halfHeight[child]) {
+            return -1;
+        }
+        return child;
+    }
+
+    private void link(int node, int body) {
+        nextInNode[body] = head[node];
+        head[node] = body;
+        count[node]++;
+    }
+
+    private int createNode(double x, double y, double halfWidth, double halfHeight, int depth) {
+        if (nodeCount == firstChild.length) {
+            int capacity = nodeCount * 2;
+            centerX = Arrays.copyOf(centerX, capacity);
+            centerY = Arrays.copyOf(centerY, capacity);
+            this.halfWidth = Arrays.copyOf(this.halfWidth, capacity);
+            this.halfHeight = Arrays.copyOf(this.halfHeight, capacity);
+            firstChild = Arrays.copyOf(firstChild, capacity);
+            head = Arrays.copyOf(head, capacity);
+            count = Arrays.copyOf(count, capacity);
+            this.depth = Arrays.copyOf(this.depth, capacity);
+        }
+
+        int node = nodeCount++;
+        centerX[node] = x;
+        centerY[node] = y;
+        this.halfWidth[node] = halfWidth;
+        this.halfHeight[node] = halfHeight;
+        firstChild[node] = -1;
+        head[node] = -1;
+        count[node] = 0;
+        this.depth[node] = depth;
+        return node;
+    }
+
+    private int pushChildren(int node, int top) {
+        if (top + 4 > stack.length) {
+            stack = Arrays.copyOf(stack, stack.length * 2);
+        }
+        for (int child = firstChild[node]; child < firstChild[node] + 4; child++) {
+            stack[top++] = child;
+        }
+        return top;
+    }
+
+    private boolean overlaps(int first, int second) {
+        return !(minX[first] > maxX[second] || minX[second] > maxX[first]
+                || minY[first] > maxY[second] || minY[second] > maxY[first]);
+    }
+
+    /**
+     * The root node holds every body that does not fit in a child, including bodies outside of the world, so its
+     * loose bounds are treated as infinite.
+     */
+    private boolean overlapsLooseBounds(int node, double queryMinX, double queryMinY, double queryMaxX,
+                                        double queryMaxY) {
+        if (node == 0) {
+            return true;
+        }
+        return !(queryMinX > centerX[node] + 2 * halfWidth[node] || queryMaxX < centerX[node] - 2 * halfWidth[node]
+                || queryMinY > centerY[node] + 2 * halfHeight[node]
+                || queryMaxY < centerY[node] - 2 * halfHeight[node]);
+    }
+
+    // getters
+
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    public int getBucketSize() {
+        return bucketSize;
+    }
+}
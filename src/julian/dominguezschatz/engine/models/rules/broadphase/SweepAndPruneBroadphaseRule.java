@@ -0,0 +1,366 @@
+package julian.dominguezschatz.engine.models.rules.broadphase;
+
+import julian.dominguezschatz.engine.models.Body;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Class: SweepAndPruneBroadphaseRule
+ * Author: Julian Dominguez-Schatz
+ * Date: 2026-10-17
+ * Description: Represents a broadphase rule that keeps the endpoints of each body's bounds sorted along the x axis
+ * (and optionally the y axis) between steps.
+ *
+ * Since bodies only move a little each step, the endpoint arrays are almost sorted, so an insertion sort fixes
+ * them in close to linear time. Every swap between a minimum and a maximum endpoint means that two bodies started
+ * or stopped overlapping, so the set of overlapping pairs is updated from the swaps alone, without testing every
+ * combination of bodies.
+ *
+ * Solution adapted from:
+ * http://www.codercorner.com/SAP.pdf
+ */
+public class SweepAndPruneBroadphaseRule implements BroadphaseRule {
+
+    // the initial number of bodies and pairs to allocate space for
+    private static final int INITIAL_CAPACITY = 16;
+
+    // whether the y axis is also kept sorted
+    private final boolean sortBothAxes;
+
+    // the sorted endpoints along each axis
+    private final Axis xAxis;
+    private final Axis yAxis;
+
+    // the body held by each proxy, and the proxy of each body
+    private Body[] bodies;
+    private final HashMap<Body, Integer> proxies;
+
+    // the bounds of each proxy
+    private double[] minX;
+    private double[] minY;
+    private double[] maxX;
+    private double[] maxY;
+
+    // the proxies that have been freed by removed bodies
+    private int[] freeProxies;
+    private int freeProxyCount;
+    private int proxyCount;
+
+    // the overlapping pairs, stored as parallel arrays of proxies
+    private int[] pairFirst;
+    private int[] pairSecond;
+    private int pairCount;
+
+    // the index of each pair in the pair arrays, keyed by its proxies
+    private final HashMap<Long, Integer> pairIndices;
+
+    // notified when pairs are added or removed, or null
+    private PairListener pairListener;
+
+    // default constructor
+    public SweepAndPruneBroadphaseRule() {
+        this(false);
+    }
+
+    /**
+     * Constructor.
+     * @param sortBothAxes whether to also keep the y axis sorted, which keeps the pair set smaller when many
+     *                     bodies share the same x range (for example, in a tall stack)
+     */
+    public SweepAndPruneBroadphaseRule(boolean sortBothAxes) {
+        this.sortBothAxes = sortBothAxes;
+
+        xAxis = new Axis();
+        yAxis = sortBothAxes ? new Axis() : null;
+
+        bodies = new Body[INITIAL_CAPACITY];
+        proxies = new HashMap<>();
+        minX = new double[INITIAL_CAPACITY];
+        minY = new double[INITIAL_CAPACITY];
+        maxX = new double[INITIAL_CAPACITY];
+        maxY = new double[INITIAL_CAPACITY];
+        freeProxies = new int[INITIAL_CAPACITY];
+
+        pairFirst = new int[INITIAL_CAPACITY];
+        pairSecond = new int[INITIAL_CAPACITY];
+        pairIndices = new HashMap<>();
+    }
+
+    @Override
+    public void addBody(Body body) {
+        int proxy;
+        if (freeProxyCount > 0) {
+            proxy = freeProxies[--freeProxyCount];
+        } else {
+            proxy = proxyCount++;
+            if (proxy == bodies.length) {
+                int capacity = bodies.length * 2;
+                bodies = Arrays.copyOf(bodies, capacity);
+                minX = Arrays.copyOf(minX, capacity);
+                minY = Arrays.copyOf(minY, capacity);
+                maxX = Arrays.copyOf(maxX, capacity);
+                maxY = Arrays.copyOf(maxY, capacity);
+                freeProxies = Arrays.copyOf(freeProxies, capacity);
+            }
+        }
+
+        bodies[proxy] = body;
+        proxies.put(body, proxy);
+        updateBounds(proxy);
+
+        /*
+         * The new endpoints are placed at the end of each axis, as if the body were infinitely far away. When the
+         * axes are next sorted, they move into place, and the swaps add any pairs the body is part of.
+         */
+        xAxis.append(proxy);
+        if (sortBothAxes) {
+            yAxis.append(proxy);
+        }
+    }
+
+    @Override
+    public void removeBody(Body body) {
+        Integer proxy = proxies.remove(body);
+        if (proxy == null) {
+            return;
+        }
+
+        xAxis.remove(proxy);
+        if (sortBothAxes) {
+            yAxis.remove(proxy);
+        }
+
+        for (int i = pairCount - 1; i >= 0; i--) {
+            if (pairFirst[i] == proxy || pairSecond[i] == proxy) {
+                removePair(pairFirst[i], pairSecond[i]);
+            }
+        }
+
+        bodies[proxy] = null;
+        freeProxies[freeProxyCount++] = proxy;
+    }
+
+    @Override
+    public void findPairs(PairHandler handler) {
+        for (int proxy = 0; proxy < proxyCount; proxy++) {
+            if (bodies[proxy] != null) {
+                updateBounds(proxy);
+            }
+        }
+
+        xAxis.sort(minX, maxX);
+        if (sortBothAxes) {
+            yAxis.sort(minY, maxY);
+        }
+
+        // the pair set is already up to date, so only the other axis needs to be checked
+        for (int i = 0; i < pairCount; i++) {
+            int first = pairFirst[i];
+            int second = pairSecond[i];
+            if (overlapsOnAllAxes(first, second)) {
+                handler.handlePair(bodies[first], bodies[second]);
+            }
+        }
+    }
+
+    @Override
+    public void query(double queryMinX, double queryMinY, double queryMaxX, double queryMaxY, List<Body> result) {
+        // every body overlapping the region has its minimum x endpoint before the end of the region
+        for (int i = 0; i < xAxis.count && xAxis.values[i] <= queryMaxX; i++) {
+            int endpoint = xAxis.endpoints[i];
+            if ((endpoint & 1) == 1) {
+                continue;
+            }
+
+            int proxy = endpoint >> 1;
+            if (!(queryMinX > maxX[proxy] || queryMinY > maxY[proxy] || minY[proxy] > queryMaxY)) {
+                result.add(bodies[proxy]);
+            }
+        }
+    }
+
+    private void updateBounds(int proxy) {
+        Body body = bodies[proxy];
+        minX[proxy] = body.getMinX();
+        minY[proxy] = body.getMinY();
+        maxX[proxy] = body.getMaxX();
+        maxY[proxy] = body.getMaxY();
+    }
+
+    private boolean overlapsOnAllAxes(int first, int second) {
+        return !(minX[first] > maxX[second] || minX[second] > maxX[first]
+                || minY[first] > maxY[second] || minY[second] > maxY[first]);
+    }
+
+    /**
+     * @param first the first proxy
+     * @param second the second proxy
+     * @return whether the proxies overlap on the axes that are kept sorted
+     */
+    private boolean overlapsOnSortedAxes(int first, int second) {
+        if (sortBothAxes) {
+            return overlapsOnAllAxes(first, second);
+        }
+        return !(minX[first] > maxX[second] || minX[second] > maxX[first]);
+    }
+
+    // pair management
+
+    private static long getPairKey(int first, int second) {
+        return first < second ? ((long) first << 32) | second : ((long) second << 32) | first;
+    }
+
+    private void addPair(int first, int second) {
+        long key = getPairKey(first, second);
+        if (pairIndices.containsKey(key)) {
+            return;
+        }
+
+        if (pairCount == pairFirst.length) {
+            pairFirst = Arrays.copyOf(pairFirst, pairCount * 2);
+            pairSecond = Arrays.copyOf(pairSecond, pairCount * 2);
+        }
+        pairFirst[pairCount] = first;
+        pairSecond[pairCount] = second;
+        pairIndices.put(key, pairCount);
+        pairCount++;
+
+        if (pairListener != null) {
+            pairListener.pairAdded(bodies[first], bodies[second]);
+        }
+    }
+
+    private void removePair(int first, int second) {
+        Integer index = pairIndices.remove(getPairKey(first, second));
+        if (index == null) {
+            return;
+        }
+
+        // move the last pair into the removed pair's place
+        pairCount--;
+        if (index != pairCount) {
+            pairFirst[index] = pairFirst[pairCount];
+            pairSecond[index] = pairSecond[pairCount];
+            pairIndices.put(getPairKey(pairFirst[index], pairSecond[index]), index);
+        }
+
+        if (pairListener != null) {
+            pairListener.pairRemoved(bodies[first], bodies[second]);
+        }
+    }
+
+    // setters
+
+    public void setPairListener(PairListener pairListener) {
+        this.pairListener = pairListener;
+    }
+
+    // getters
+
+    public boolean isSortingBothAxes() {
+        return sortBothAxes;
+    }
+
+    public int getPairCount() {
+        return pairCount;
+    }
+
+    /**
+     * The sorted endpoints of the bodies' bounds along one axis. Each endpoint is stored as (proxy << 1) | isMax.
+     */
+    private class Axis {
+
+        private int[] endpoints;
+        private double[] values;
+        private int count;
+
+        Axis() {
+            endpoints = new int[INITIAL_CAPACITY * 2];
+            values = new double[INITIAL_CAPACITY * 2];
+        }
+
+        void append(int proxy) {
+            if (count + 2 > endpoints.length) {
+                endpoints = Arrays.copyOf(endpoints, endpoints.length * 2);
+                values = Arrays.copyOf(values, values.length * 2);
+            }
+            values[count] = Double.POSITIVE_INFINITY;
+            endpoints[count++] = proxy << 1;
+            values[count] = Double.POSITIVE_INFINITY;
+            endpoints[count++] = (proxy << 1) | 1;
+        }
+
+        void remove(int proxy) {
+            int kept = 0;
+            for (int i = 0; i < count; i++) {
+                if ((endpoints[i] >> 1) != proxy) {
+                    endpoints[kept] = endpoints[i];
+                    values[kept] = values[i];
+                    kept++;
+                }
+            }
+            count = kept;
+        }
+
+        /**
+         * Updates the endpoint values and restores the sorted order using an insertion sort. Whenever a minimum
+         * endpoint passes a maximum endpoint, the two bodies may have started overlapping; whenever a maximum
+         * endpoint passes a minimum endpoint, they have stopped overlapping. Minimum endpoints are sorted before
+         * maximum endpoints of the same value, so bounds that exactly touch count as overlapping, as they do in
+         * the other broadphase rules.
+         *
+         * @param min the minimum bound of each proxy along this axis
+         * @param max the maximum bound of each proxy along this axis
+         */
+        void sort(double[] min, double[] max) {
+            for (int i = 0; i < count; i++) {
+                int proxy = endpoints[i] >> 1;
+                values[i] = (endpoints[i] & 1) == 0 ? min[proxy] : max[proxy];
+            }
+
+            for (int i = 1; i < count; i++) {
+                int endpoint = endpoints[i];
+                double value = values[i];
+                int proxy = endpoint >> 1;
+                boolean isMax = (endpoint & 1) == 1;
+
+                int j = i - 1;
+                while (j >= 0 && isAfter(values[j], endpoints[j], value, endpoint)) {
+                    int other = endpoints[j];
+                    int otherProxy = other >> 1;
+                    boolean otherIsMax = (other & 1) == 1;
+
+                    if (!isMax && otherIsMax) {
+                        if (overlapsOnSortedAxes(proxy, otherProxy)) {
+                            addPair(proxy, otherProxy);
+                        }
+                    } else if (isMax && !otherIsMax) {
+                        removePair(proxy, otherProxy);
+                    }
+
+                    endpoints[j + 1] = other;
+                    values[j + 1] = values[j];
+                    j--;
+                }
+                endpoints[j + 1] = endpoint;
+                values[j + 1] = value;
+            }
+        }
+
+        /**
+         * @param value the value of the first endpoint
+         * @param endpoint the first endpoint
+         * @param otherValue the value of the second endpoint
+         * @param otherEndpoint the second endpoint
+         * @return whether the first endpoint belongs after the second endpoint in the sorted order
+         */
+        private boolean isAfter(double value, int endpoint, double otherValue, int otherEndpoint) {
+            if (value != otherValue) {
+                return value > otherValue;
+            }
+            return (endpoint & 1) == 1 && (otherEndpoint & 1) == 0;
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package julian.dominguezschatz.engine.models.rules.broadphase;
+
+import julian.dominguezschatz.engine.models.Body;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Class: UniformGridBroadphaseRule
+ * Author: Julian Dominguez-Schatz
+ * Date: 2026-10-17
+ * Description: Represents a broadphase rule that divides the world into a grid of equally sized cells. Only
+ * bodies that share a cell are reported as candidate pairs.
+ *
+ * The grid is rebuilt every step using a counting sort, so that the cell contents are stored in flat arrays
+ * and no per-cell lists need to be allocated. Bodies that leave the world are clamped into the border cells.
+ */
+public class UniformGridBroadphaseRule implements BroadphaseRule {
+
+    // the bodies this rule tracks
+    private final ArrayList<Body> bodies;
+
+    // dimensions of the grid
+    private final double cellSize;
+    private final int columns;
+    private final int rows;
+
+    // the bounds of each body, indexed in the same order as the body list
+    private double[] minX;
+    private double[] minY;
+    private double[] maxX;
+    private double[] maxY;
+
+    // the range of cells each body covers, indexed in the same order as the body list
+    private int[] minColumn;
+    private int[] minRow;
+    private int[] maxColumn;
+    private int[] maxRow;
+
+    // cellStart[i] is the offset of the first entry of cell i in cellEntries; the last element is the entry count
+    private final int[] cellStart;
+    private int[] cellEntries;
+
+    // whether bodies have been added or removed since the grid was last built
+    private boolean dirty;
+
+    /**
+     * Constructor.
+     * @param width the width of the world
+     * @param height the height of the world
+     * @param cellSize the width and height of a single cell
+     */
+    public UniformGridBroadphaseRule(double width, double height, double cellSize) {
+        if (cellSize <= 0) {
+            throw new IllegalArgumentException("Cell size must be > 0!");
+        }
+
+        this.cellSize = cellSize;
+        this.columns = Math.max(1, (int) Math.ceil(width / cellSize));
+        this.rows = Math.max(1, (int) Math.ceil(height / cellSize));
+
+        bodies = new ArrayList<>();
+        cellStart = new int[columns * rows + 1];
+        cellEntries = new int[0];
+        ensureBodyCapacity(0);
+    }
+
+    @Override
+    public void addBody(Body body) {
+        bodies.add(body);
+        dirty = true;
+    }
+
+    @Override
+    public void removeBody(Body body) {
+        bodies.remove(body);
+        dirty = true;
+    }
+
+    @Override
+    public void findPairs(PairHandler handler) {
+        build();
+
+        // test the bodies within each cell against each other
+        int start = 0;
+        for (int cell = 0; cell < cellStart.length - 1; cell++) {
+            int end = cellStart[cell];
+            for (int a = start; a < end; a++) {
+                int first = cellEntries[a];
+                for (int b = a + 1; b < end; b++) {
+                    int second = cellEntries[b];
+                    if (isReportingCell(first, second, cell)) {
+                        handler.handlePair(bodies.get(first), bodies.get(second));
+                    }
+                }
+            }
+            start = end;
+        }
+    }
+
+    @Override
+    public void query(double queryMinX, double queryMinY, double queryMaxX, double queryMaxY, List<Body> result) {
+        if (dirty) {
+            build();
+        }
+
+        int queryMinColumn = toCell(queryMinX, columns);
+        int queryMinRow = toCell(queryMinY, rows);
+        int queryMaxColumn = toCell(queryMaxX, columns);
+        int queryMaxRow = toCell(queryMaxY, rows);
+
+        for (int row = queryMinRow; row <= queryMaxRow; row++) {
+            for (int column = queryMinColumn; column <= queryMaxColumn; column++) {
+                int cell = row * columns + column;
+                int start = cell == 0 ? 0 : cellStart[cell - 1];
+                for (int entry = start; entry < cellStart[cell]; entry++) {
+                    int i = cellEntries[entry];
+                    if (queryMinX > maxX[i] || minX[i] > queryMaxX || queryMinY > maxY[i] || minY[i] > queryMaxY) {
+                        continue;
+                    }
+
+                    // like pairs, each body is only reported by the first cell it shares with the region
+                    if (Math.max(minColumn[i], queryMinColumn) == column && Math.max(minRow[i], queryMinRow) == row) {
+                        result.add(bodies.get(i));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Determines the bounds of each body and places each body in the cells it covers.
+     */
+    private void build() {
+        dirty = false;
+        int count = bodies.size();
+        ensureBodyCapacity(count);
+
+        // determine the cells covered by each body, and count the entries in each cell
+        Arrays.fill(cellStart, 0);
+        for (int i = 0; i < count; i++) {
+            Body body = bodies.get(i);
+            minX[i] = body.getMinX();
+            minY[i] = body.getMinY();
+            maxX[i] = body.getMaxX();
+            maxY[i] = body.getMaxY();
+
+            minColumn[i] = toCell(minX[i], columns);
+            minRow[i] = toCell(minY[i], rows);
+            maxColumn[i] = toCell(maxX[i], columns);
+            maxRow[i] = toCell(maxY[i], rows);
+
+            for (int row = minRow[i]; row <= maxRow[i]; row++) {
+                for (int column = minColumn[i]; column <= maxColumn[i]; column++) {
+                    cellStart[row * columns + column + 1]++;
+                }
+            }
+        }
+
+        // convert the counts to offsets
+        for (int cell = 1; cell < cellStart.length; cell++) {
+            cellStart[cell] += cellStart[cell - 1];
+        }
+        int entryCount = cellStart[cellStart.length - 1];
+        if (cellEntries.length < entryCount) {
+            cellEntries = new int[Math.max(entryCount, cellEntries.length * 2)];
+        }
+
+        // place each body in its cells; afterwards, cellStart[i] holds the start of cell i + 1
+        for (int i = 0; i < count; i++) {
+            for (int row = minRow[i]; row <= maxRow[i]; row++) {
+                for (int column = minColumn[i]; column <= maxColumn[i]; column++) {
+                    cellEntries[cellStart[row * columns + column]++] = i;
+                }
+            }
+        }
+    }
+
+    /**
+     * Two overlapping bodies may share many cells. To report them only once, the pair is only reported by the
+     * cell containing the minimum corner of the overlap of their bounds.
+     *
+     * @param first the index of the first body
+     * @param second the index of the second body
+     * @param cell the cell being tested
+     * @return whether the bodies overlap and the pair should be reported by the given cell
+     */
+    private boolean isReportingCell(int first, int second, int cell) {
+        if (minX[first] > maxX[second] || minX[second] > maxX[first]
+                || minY[first] > maxY[second] || minY[second] > maxY[first]) {
+            return false;
+        }
+
+        int column = Math.max(minColumn[first], minColumn[second]);
+        int row = Math.max(minRow[first], minRow[second]);
+        return row * columns + column == cell;
+    }
+
+    /**
+     * @param coordinate the coordinate to convert
+     * @param cellCount the number of cells along the coordinate's axis
+     * @return the index of the cell containing the coordinate, clamped to the grid
+     */
+    private int toCell(double coordinate, int cellCount) {
+        int cell = (int) Math.floor(coordinate / cellSize);
+        if (cell < 0) {
+            return 0;
+        } else if (cell >= cellCount) {
+            return cellCount - 1;
+        }
+        return cell;
+    }
+
+    private void ensureBodyCapacity(int count) {
+        if (minX != null && minX.length >= count) {
+            return;
+        }
+
+        int capacity = Math.max(16, count * 2);
+        minX = new double[capacity];
+        minY = new double[capacity];
+        maxX = new double[capacity];
+        maxY = new double[capacity];
+        minColumn = new int[capacity];
+        minRow = new int[capacity];
+        maxColumn = new int[capacity];
+        maxRow = new int[capacity];
+    }
+}
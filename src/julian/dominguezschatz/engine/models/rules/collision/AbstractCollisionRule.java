@@ -0,0 +1,120 @@
+package julian.dominguezschatz.engine.models.rules.collision;
+
+import julian.dominguezschatz.engine.models.Body;
+import julian.dominguezschatz.engine.models.CollisionResult;
+import julian.dominguezschatz.engine.utils.Vector2D;
+
+/**
+ * Class: AbstractCollisionRule
+ * Author: Julian Dominguez-Schatz
+ * Date: 2026-10-17
+ * Description: Represents the parts of a collision rule that do not depend on how collisions are detected. Bodies
+ * found to be colliding are pushed apart and given an impulse along the collision normal.
+ */
+public abstract class AbstractCollisionRule implements CollisionRule {
+
+    /**
+     * Determines whether two bodies are colliding.
+     *
+     * @param first the first body
+     * @param second the second body
+     * @return collision information
+     */
+    @Override
+    public CollisionResult isCollision(Body first, Body second) {
+        CollisionResult result = new CollisionResult();
+        isCollision(first, second, result);
+        return result;
+    }
+
+    private double getPercentMass(Body first, Body second) {
+        if (second.getMass() == Body.INFINITE_MASS) {
+            return 1;
+        }
+        return first.getMass() / second.getMass();
+    }
+
+    /**
+     * @param first the first body
+     * @param second the second body
+     * @param mtv the minimum translation vector
+     */
+    @Override
+    public void resolveCollision(Body first, Body second, Vector2D mtv) {
+        resolveCollision(first, second, new CollisionResult(true, mtv));
+    }
+
+    /**
+     * @param first the first body
+     * @param second the second body
+     * @param result the result of the collision test
+     */
+    @Override
+    public void resolveCollision(Body first, Body second, CollisionResult result) {
+        double normalX = result.getNormalX();
+        double normalY = result.getNormalY();
+        double depth = result.getDepth();
+
+        double percent1 = getPercentMass(first, second);
+        double percent2 = getPercentMass(second, first);
+
+        // push the objects apart so they are tangent
+        first.translate(percent1 * depth * normalX, percent1 * depth * normalY);
+        second.translate(percent2 * depth * -normalX, percent2 * depth * -normalY);
+
+        double reciprocalMassSum = first.getReciprocalMass() + second.getReciprocalMass();
+        if (reciprocalMassSum == 0) {
+            return;
+        }
+
+        // the impulse is applied at the middle of the contact points, or at the centers of mass if there are none
+        double firstOffsetX = 0;
+        double firstOffsetY = 0;
+        double secondOffsetX = 0;
+        double secondOffsetY = 0;
+        int contactCount = result.getContactCount();
+        if (contactCount > 0) {
+            double pointX = 0;
+            double pointY = 0;
+            for (int i = 0; i < contactCount; i++) {
+                pointX += result.getContactX(i) / contactCount;
+                pointY += result.getContactY(i) / contactCount;
+            }
+            firstOffsetX = pointX - first.getCenterOfMassX();
+            firstOffsetY = pointY - first.getCenterOfMassY();
+            secondOffsetX = pointX - second.getCenterOfMassX();
+            secondOffsetY = pointY - second.getCenterOfMassY();
+        }
+
+        // the velocity of each body at the point includes the part due to it turning
+        Vector2D firstVelocity = first.getVelocity();
+        Vector2D secondVelocity = second.getVelocity();
+        double firstSpin = Math.toRadians(first.getAngularVelocity());
+        double secondSpin = Math.toRadians(second.getAngularVelocity());
+        double relativeX = firstVelocity.getX() - firstSpin * firstOffsetY
+                - secondVelocity.getX() + secondSpin * secondOffsetY;
+        double relativeY = firstVelocity.getY() + firstSpin * firstOffsetX
+                - secondVelocity.getY() - secondSpin * secondOffsetX;
+        double velocityAlongNormal = relativeX * normalX + relativeY * normalY;
+        if (velocityAlongNormal >= 0) {
+            // the bodies are already separating, so no impulse is needed to keep them apart
+            return;
+        }
+
+        // get lowest elasticity
+        double firstRestitution = first.getCollider().getMaterial().getRestitution();
+        double secondRestitution = second.getCollider().getMaterial().getRestitution();
+        double restitution = Math.min(firstRestitution, secondRestitution);
+
+        // apply the impulse, which is spread over the masses and moments of inertia of both bodies
+        double firstArm = firstOffsetX * normalY - firstOffsetY * normalX;
+        double secondArm = secondOffsetX * normalY - secondOffsetY * normalX;
+        double reciprocalNormalMass = reciprocalMassSum + first.getReciprocalInertia() * firstArm * firstArm
+                + second.getReciprocalInertia() * secondArm * secondArm;
+        double impulse = -(1 + restitution) * velocityAlongNormal / reciprocalNormalMass;
+
+        first.applyImpulse(impulse * normalX, impulse * normalY, firstOffsetX, firstOffsetY);
+        second.applyImpulse(-impulse * normalX, -impulse * normalY, secondOffsetX, secondOffsetY);
+    }
+
+}
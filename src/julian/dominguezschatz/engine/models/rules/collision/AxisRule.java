@@ -1,7 +1,6 @@
 package julian.dominguezschatz.engine.models.rules.collision;
 
 import julian.dominguezschatz.engine.models.Body;
-import julian.dominguezschatz.engine.utils.Vector2D;
 
 /**
  * Assignment: Generic Object
@@ -11,5 +10,19 @@ import julian.dominguezschatz.engine.utils.Vector2D;
  */
 public interface AxisRule {
 
-    Vector2D[] getAxes(Body body1, Body body2);
+    /**
+     * @param body the body the axes will be taken from
+     * @return the largest number of axes this rule will produce for the body
+     */
+    int getAxisCount(Body body);
+
+    /**
+     * Writes the normalized axes to test into a caller-supplied array, in the form {x0, y0, x1, y1, ...}.
+     *
+     * @param body1 the body the axes are taken from
+     * @param body2 the other body
+     * @param axes the array to write the axes to, with room for at least getAxisCount(body1) axes
+     * @return the number of axes written
+     */
+    int getAxes(Body body1, Body body2, double[] axes);
 }
@@ -0,0 +1,43 @@
+package julian.dominguezschatz.engine.models.rules.collision;
+
+import julian.dominguezschatz.engine.models.Body;
+import julian.dominguezschatz.engine.models.CollisionResult;
+
+/**
+ * Class: CircleCircleCollisionRule
+ * Author: Julian Dominguez-Schatz
+ * Date: 2026-10-17
+ * Description: Represents a rule that tests for a collision between two circles, by comparing the distance between
+ * their centers to the sum of their radii.
+ */
+public class CircleCircleCollisionRule implements ShapePairRule {
+
+    @Override
+    public boolean isCollision(Body first, Body second, CollisionResult result) {
+        double centerX = first.getWorldCenterX();
+        double centerY = first.getWorldCenterY();
+        double dx = centerX - second.getWorldCenterX();
+        double dy = centerY - second.getWorldCenterY();
+        double radiusSum = first.getWorldRadius() + second.getWorldRadius();
+
+        double distSq = dx * dx + dy * dy;
+        if (distSq > radiusSum * radiusSum) {
+            result.set(false, 0, 0, 0);
+            return false;
+        }
+
+        double dist = Math.sqrt(distSq);
+        if (dist == 0) {
+            // the centers coincide, so any direction will do
+            result.set(true, 1, 0, radiusSum);
+        } else {
+            result.set(true, dx / dist, dy / dist, radiusSum - dist);
+        }
+
+        // the contact is halfway between the deepest points of the two circles
+        double depth = result.getDepth();
+        double offset = first.getWorldRadius() - depth / 2;
+        result.addContact(centerX - result.getNormalX() * offset, centerY - result.getNormalY() * offset, depth, 0);
+        return true;
+    }
+}
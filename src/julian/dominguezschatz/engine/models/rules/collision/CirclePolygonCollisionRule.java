@@ -0,0 +1,117 @@
+package julian.dominguezschatz.engine.models.rules.collision;
+
+import julian.dominguezschatz.engine.models.Body;
+import julian.dominguezschatz.engine.models.CollisionResult;
+
+/**
+ * Class: CirclePolygonCollisionRule
+ * Author: Julian Dominguez-Schatz
+ * Date: 2026-10-17
+ * Description: Represents a rule that tests for a collision between a circle and a convex polygon, by finding the
+ * feature of the polygon (an edge or a vertex) closest to the circle's center.
+ *
+ * Solution adapted from:
+ * https://github.com/erincatto/box2d (b2CollidePolygonAndCircle)
+ */
+public class CirclePolygonCollisionRule implements ShapePairRule {
+
+    /**
+     * @param first the circle
+     * @param second the polygon
+     * @param result the result to write to
+     * @return whether the bodies are colliding
+     */
+    @Override
+    public boolean isCollision(Body first, Body second, CollisionResult result) {
+        double centerX = first.getWorldCenterX();
+        double centerY = first.getWorldCenterY();
+        double radius = first.getWorldRadius();
+
+        double[] vertices = second.getWorldVertices();
+        double[] normals = second.getWorldNormals();
+        int count = vertices.length / 2;
+
+        // find the edge the center is furthest outside of
+        int edge = 0;
+        double separation = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < count; i++) {
+            double s = normals[i * 2] * (centerX - vertices[i * 2])
+                    + normals[i * 2 + 1] * (centerY - vertices[i * 2 + 1]);
+            if (s > radius) {
+                result.set(false, 0, 0, 0);
+                return false;
+            }
+            if (s > separation) {
+                separation = s;
+                edge = i;
+            }
+        }
+
+        double normalX = normals[edge * 2];
+        double normalY = normals[edge * 2 + 1];
+
+        // if the center is inside the polygon, push it out through the closest edge
+        if (separation <= 0) {
+            result.set(true, normalX, normalY, radius - separation);
+            addContact(centerX, centerY, radius, result);
+            return true;
+        }
+
+        int next = (edge + 1) % count;
+        double x1 = vertices[edge * 2];
+        double y1 = vertices[edge * 2 + 1];
+        double x2 = vertices[next * 2];
+        double y2 = vertices[next * 2 + 1];
+
+        // the center may be closest to either vertex of the edge rather than the edge itself
+        boolean collision;
+        if ((centerX - x1) * (x2 - x1) + (centerY - y1) * (y2 - y1) <= 0) {
+            collision = setVertexResult(centerX - x1, centerY - y1, radius, normalX, normalY, result);
+        } else if ((centerX - x2) * (x1 - x2) + (centerY - y2) * (y1 - y2) <= 0) {
+            collision = setVertexResult(centerX - x2, centerY - y2, radius, normalX, normalY, result);
+        } else {
+            result.set(true, normalX, normalY, radius - separation);
+            collision = true;
+        }
+
+        if (collision) {
+            addContact(centerX, centerY, radius, result);
+        }
+        return collision;
+    }
+
+    /**
+     * Adds a contact halfway between the deepest point of the circle and the surface of the polygon.
+     */
+    private void addContact(double centerX, double centerY, double radius, CollisionResult result) {
+        double offset = radius - result.getDepth() / 2;
+        result.addContact(centerX - result.getNormalX() * offset, centerY - result.getNormalY() * offset,
+                result.getDepth(), 0);
+    }
+
+    /**
+     * @param dx the x value of the vector from the vertex to the circle's center
+     * @param dy the y value of the vector from the vertex to the circle's center
+     * @param radius the radius of the circle
+     * @param edgeNormalX the x value of the normal of the closest edge, used if the center is on the vertex
+     * @param edgeNormalY the y value of the normal of the closest edge, used if the center is on the vertex
+     * @param result the result to write to
+     * @return whether the circle overlaps the vertex
+     */
+    private boolean setVertexResult(double dx, double dy, double radius, double edgeNormalX, double edgeNormalY,
+                                    CollisionResult result) {
+        double distSq = dx * dx + dy * dy;
+        if (distSq > radius * radius) {
+            result.set(false, 0, 0, 0);
+            return false;
+        }
+
+        double dist = Math.sqrt(distSq);
+        if (dist == 0) {
+            result.set(true, edgeNormalX, edgeNormalY, radius);
+        } else {
+            result.set(true, dx / dist, dy / dist, radius - dist);
+        }
+        return true;
+    }
+}
@@ -1,6 +1,8 @@
 package julian.dominguezschatz.engine.models.rules.collision;
 
 import julian.dominguezschatz.engine.models.Body;
+import julian.dominguezschatz.engine.models.BodyPair;
+import julian.dominguezschatz.engine.models.CollisionBatch;
 import julian.dominguezschatz.engine.models.CollisionResult;
 import julian.dominguezschatz.engine.utils.Vector2D;
 
@@ -15,4 +17,66 @@ public interface CollisionRule {
     CollisionResult isCollision(Body first, Body second);
     void resolveCollision(Body first, Body second, Vector2D collisionNormal);
 
+    /**
+     * Determines whether two bodies are colliding, writing the details into an existing result instead of
+     * allocating a new one.
+     *
+     * @param first the first body
+     * @param second the second body
+     * @param result the result to write to
+     * @return whether the bodies are colliding
+     */
+    boolean isCollision(Body first, Body second, CollisionResult result);
+
+    /**
+     * Resolves a collision found by {@link #isCollision(Body, Body, CollisionResult)}.
+     *
+     * @param first the first body
+     * @param second the second body
+     * @param result the result of the collision test
+     */
+    void resolveCollision(Body first, Body second, CollisionResult result);
+
+    /**
+     * Tests a batch of candidate pairs, writing the result of each into the pair's own result. The pairs are grouped
+     * by the shape types of their bodies first, so that each group is tested in a loop of its own. The world tests
+     * the pairs found by its broadphase this way.
+     *
+     * @param pairs the pairs to test, which must not hold compound bodies
+     * @param pairCount the number of pairs
+     * @param batch the batch used to group the pairs
+     * @return the number of pairs that are colliding
+     */
+    default int isCollision(BodyPair[] pairs, int pairCount, CollisionBatch batch) {
+        batch.group(pairs, pairCount);
+
+        int collisions = 0;
+        for (int group = 0; group < CollisionBatch.GROUP_COUNT; group++) {
+            if (batch.getGroupStart(group) < batch.getGroupEnd(group)) {
+                collisions += collideGroup(group, pairs, batch);
+            }
+        }
+        return collisions;
+    }
+
+    /**
+     * Tests the pairs of one group of a batch. Rules may override this to give a group a loop specialized to its
+     * shape types.
+     *
+     * @param group the group, numbered firstType * Collider.SHAPE_TYPE_COUNT + secondType
+     * @param pairs the pairs of the batch
+     * @param batch the batch the pairs were grouped by
+     * @return the number of pairs in the group that are colliding
+     */
+    default int collideGroup(int group, BodyPair[] pairs, CollisionBatch batch) {
+        int collisions = 0;
+        for (int i = batch.getGroupStart(group); i < batch.getGroupEnd(group); i++) {
+            BodyPair pair = pairs[batch.getOrderedPair(i)];
+            if (isCollision(pair.getFirst(), pair.getSecond(), pair.getResult())) {
+                collisions++;
+            }
+        }
+        return collisions;
+    }
+
 }
@@ -0,0 +1,244 @@
+package julian.dominguezschatz.engine.models.rules.collision;
+
+import julian.dominguezschatz.engine.models.Body;
+import julian.dominguezschatz.engine.models.Collider;
+import julian.dominguezschatz.engine.models.CollisionResult;
+
+/**
+ * Class: ContactManifoldRule
+ * Author: Julian Dominguez-Schatz
+ * Date: 2026-10-17
+ * Description: Implements a rule that finds the contact points of two colliding bodies, once their collision normal
+ * and depth are known.
+ *
+ * For two polygons, the edge most facing the other body is chosen from each, and whichever is better aligned with
+ * the normal becomes the reference edge; the other polygon's edge most opposed to it is the incident edge. The
+ * incident edge is clipped to the sides of the reference edge, and each clipped point behind the reference edge is
+ * a contact. This gives two contacts for resting edges (such as a stacked box) and one for corners.
+ *
+ * Each contact point is placed halfway between the two surfaces. Its id packs whether the second body held the
+ * reference edge, the index of the reference edge, and the incident vertex that produced the point, or that was
+ * clipped away to produce it. A point keeps its id whether or not it was clipped, so that the contacts between
+ * bodies of the same width, whose vertices lie right on the sides of the reference edge, keep their ids from step
+ * to step.
+ *
+ * Solution adapted from:
+ * http://www.dyn4j.org/2011/11/contact-points-using-clipping/
+ * https://github.com/erincatto/box2d-lite (Collide.cpp)
+ */
+public class ContactManifoldRule {
+
+    // the reference edge only switches to the second body when its edge is better aligned by this much, so that the
+    // choice does not flicker between steps for parallel edges
+    private static final double REFERENCE_TOLERANCE = 1e-3;
+
+    // the bits of a feature id holding the reference edge and whether the bodies were swapped
+    private static final int REFERENCE_EDGE_SHIFT = 16;
+    private static final int FLIP_BIT = 1 << 30;
+
+    // the incident edge, as it is clipped
+    private final double[] clipX;
+    private final double[] clipY;
+    private final int[] clipId;
+
+    // the output of each clipping pass
+    private final double[] clippedX;
+    private final double[] clippedY;
+    private final int[] clippedId;
+
+    // used to find support points of shapes that are not polygons
+    private final double[] point;
+
+    // default constructor
+    public ContactManifoldRule() {
+        clipX = new double[2];
+        clipY = new double[2];
+        clipId = new int[2];
+        clippedX = new double[2];
+        clippedY = new double[2];
+        clippedId = new int[2];
+        point = new double[2];
+    }
+
+    /**
+     * Adds the contact points of two colliding bodies to a result whose normal and depth are already set. The
+     * bodies may also be separated, with a negative depth, in which case each contact point is placed halfway
+     * across the gap and given a negative depth too.
+     *
+     * @param first the first body
+     * @param second the second body
+     * @param result the result of the collision test
+     */
+    public void generate(Body first, Body second, CollisionResult result) {
+        if (first.getCollider().getShapeType() == Collider.SHAPE_POLYGON
+                && second.getCollider().getShapeType() == Collider.SHAPE_POLYGON
+                && clipPolygons(first, second, result)) {
+            return;
+        }
+
+        /*
+         * Otherwise, use a single point halfway into the overlap from the deepest point of one body. A polygon's
+         * deepest point is ambiguous when one of its edges faces the normal, so a curved body is preferred.
+         */
+        double normalX = result.getNormalX();
+        double normalY = result.getNormalY();
+        double depth = result.getDepth();
+        if (first.getCollider().getShapeType() == Collider.SHAPE_POLYGON
+                && second.getCollider().getShapeType() != Collider.SHAPE_POLYGON) {
+            second.getCollider().getSupportRule().support(second, normalX, normalY, point);
+            result.addContact(point[0] - normalX * depth / 2, point[1] - normalY * depth / 2, depth, 0);
+        } else {
+            first.getCollider().getSupportRule().support(first, -normalX, -normalY, point);
+            result.addContact(point[0] + normalX * depth / 2, point[1] + normalY * depth / 2, depth, 0);
+        }
+    }
+
+    /**
+     * Finds the contact points of two polygons by clipping.
+     *
+     * @param first the first body
+     * @param second the second body
+     * @param result the result of the collision test
+     * @return whether any contact points were found
+     */
+    private boolean clipPolygons(Body first, Body second, CollisionResult result) {
+        // the normal points from the second body towards the first
+        double normalX = result.getNormalX();
+        double normalY = result.getNormalY();
+
+        int firstEdge = findMostAlignedEdge(first.getWorldNormals(), -normalX, -normalY);
+        int secondEdge = findMostAlignedEdge(second.getWorldNormals(), normalX, normalY);
+        double firstAlignment = -dot(first.getWorldNormals(), firstEdge, normalX, normalY);
+        double secondAlignment = dot(second.getWorldNormals(), secondEdge, normalX, normalY);
+
+        Body reference = first;
+        Body incident = second;
+        int referenceEdge = firstEdge;
+        int flip = 0;
+        if (secondAlignment > firstAlignment + REFERENCE_TOLERANCE) {
+            reference = second;
+            incident = first;
+            referenceEdge = secondEdge;
+            flip = FLIP_BIT;
+        }
+
+        double[] referenceVertices = reference.getWorldVertices();
+        double[] referenceNormals = reference.getWorldNormals();
+        double referenceNormalX = referenceNormals[referenceEdge * 2];
+        double referenceNormalY = referenceNormals[referenceEdge * 2 + 1];
+
+        // the incident edge is the one most opposed to the reference edge
+        double[] incidentVertices = incident.getWorldVertices();
+        int incidentCount = incidentVertices.length / 2;
+        int incidentEdge = findMostAlignedEdge(incident.getWorldNormals(), -referenceNormalX, -referenceNormalY);
+        int incidentNext = (incidentEdge + 1) % incidentCount;
+        clipX[0] = incidentVertices[incidentEdge * 2];
+        clipY[0] = incidentVertices[incidentEdge * 2 + 1];
+        clipId[0] = incidentEdge;
+        clipX[1] = incidentVertices[incidentNext * 2];
+        clipY[1] = incidentVertices[incidentNext * 2 + 1];
+        clipId[1] = incidentNext;
+
+        // the reference edge, and the direction along it
+        int referenceNext = (referenceEdge + 1) % (referenceVertices.length / 2);
+        double x1 = referenceVertices[referenceEdge * 2];
+        double y1 = referenceVertices[referenceEdge * 2 + 1];
+        double x2 = referenceVertices[referenceNext * 2];
+        double y2 = referenceVertices[referenceNext * 2 + 1];
+        double tangentX = x2 - x1;
+        double tangentY = y2 - y1;
+        double length = Math.sqrt(tangentX * tangentX + tangentY * tangentY);
+        if (length == 0) {
+            return false;
+        }
+        tangentX /= length;
+        tangentY /= length;
+
+        // clip the incident edge to the sides of the reference edge
+        if (clip(-tangentX, -tangentY, -(tangentX * x1 + tangentY * y1)) < 2) {
+            return false;
+        }
+        copyClipped();
+        if (clip(tangentX, tangentY, tangentX * x2 + tangentY * y2) < 2) {
+            return false;
+        }
+
+        // keep the points behind the reference edge, or both points if the bodies are separated
+        int prefix = flip | (referenceEdge << REFERENCE_EDGE_SHIFT);
+        for (int i = 0; i < 2; i++) {
+            double separation = referenceNormalX * (clippedX[i] - x1) + referenceNormalY * (clippedY[i] - y1);
+            if (separation <= 0 || result.getDepth() < 0) {
+                result.addContact(clippedX[i] - referenceNormalX * separation / 2,
+                        clippedY[i] - referenceNormalY * separation / 2, -separation, prefix | clippedId[i]);
+            }
+        }
+        return result.getContactCount() > 0;
+    }
+
+    /**
+     * Clips the incident edge to a half-plane, keeping the points p for which normal . p <= offset. A point created
+     * by clipping takes the id of the point it replaces.
+     *
+     * @param normalX the x value of the normal of the half-plane
+     * @param normalY the y value of the normal of the half-plane
+     * @param offset the offset of the half-plane along its normal
+     * @return the number of points kept
+     */
+    private int clip(double normalX, double normalY, double offset) {
+        double distance0 = normalX * clipX[0] + normalY * clipY[0] - offset;
+        double distance1 = normalX * clipX[1] + normalY * clipY[1] - offset;
+
+        int count = 0;
+        if (distance0 <= 0) {
+            setClipped(count++, clipX[0], clipY[0], clipId[0]);
+        }
+        if (distance1 <= 0) {
+            setClipped(count++, clipX[1], clipY[1], clipId[1]);
+        }
+
+        // if the points are on opposite sides, the edge crosses the boundary of the half-plane
+        if (distance0 * distance1 < 0 && count < 2) {
+            double t = distance0 / (distance0 - distance1);
+            setClipped(count++, clipX[0] + t * (clipX[1] - clipX[0]), clipY[0] + t * (clipY[1] - clipY[0]),
+                    distance0 > 0 ? clipId[0] : clipId[1]);
+        }
+        return count;
+    }
+
+    private void setClipped(int index, double x, double y, int id) {
+        clippedX[index] = x;
+        clippedY[index] = y;
+        clippedId[index] = id;
+    }
+
+    private void copyClipped() {
+        for (int i = 0; i < 2; i++) {
+            clipX[i] = clippedX[i];
+            clipY[i] = clippedY[i];
+            clipId[i] = clippedId[i];
+        }
+    }
+
+    /**
+     * @param normals the packed normals of a polygon
+     * @param directionX the x value of the direction
+     * @param directionY the y value of the direction
+     * @return the index of the edge whose normal is most aligned with a direction
+     */
+    private static int findMostAlignedEdge(double[] normals, double directionX, double directionY) {
+        int best = 0;
+        double max = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < normals.length; i += 2) {
+            double alignment = normals[i] * directionX + normals[i + 1] * directionY;
+            if (alignment > max) {
+                max = alignment;
+                best = i / 2;
+            }
+        }
+        return best;
+    }
+
+    private static double dot(double[] normals, int edge, double x, double y) {
+        return normals[edge * 2] * x + normals[edge * 2 + 1] * y;
+    }
+}
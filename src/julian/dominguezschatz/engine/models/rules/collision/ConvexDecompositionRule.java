@@ -0,0 +1,334 @@
+package julian.dominguezschatz.engine.models.rules.collision;
+
+import java.awt.geom.Path2D;
+import java.awt.geom.PathIterator;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Class: ConvexDecompositionRule
+ * Author: Julian Dominguez-Schatz
+ * Date: 2026-10-17
+ * Description: Implements a rule that splits concave polygons into convex pieces, so that they can be collided as
+ * compound bodies.
+ *
+ * Each polygon is triangulated by ear clipping, and the triangles are then merged across their shared diagonals
+ * wherever the result stays convex (Hertel-Mehlhorn). This gives at most four times the minimum number of pieces.
+ * Each subpath of a shape is treated as a separate polygon, so holes are not supported.
+ *
+ * Decompositions are cached by shape identity, so a shape shared by many bodies is only decomposed once. Shapes
+ * must therefore not be modified after they have been decomposed.
+ *
+ * Solution adapted from:
+ * https://mpen.ca/406/bayazit (Hertel-Mehlhorn section)
+ */
+public class ConvexDecompositionRule {
+
+    // cross products smaller than this are treated as collinear
+    private static final double EPSILON = 1e-9;
+
+    // used to reject shapes with curved edges before they are decomposed
+    private final PolygonAssertionRule polygonAssertionRule;
+
+    // stands in for the pieces of a convex shape in the cache, since an array holding the shape itself would keep
+    // its weak key from ever being dropped
+    private static final Path2D.Double[] CONVEX = new Path2D.Double[0];
+
+    // the pieces of each shape decomposed so far; the keys are weak, so shapes that are no longer used are dropped
+    private final Map<Path2D.Double, Path2D.Double[]> cache;
+
+    // default constructor
+    public ConvexDecompositionRule() {
+        polygonAssertionRule = new PolygonAssertionRule();
+        cache = new WeakHashMap<>();
+    }
+
+    /**
+     * Splits a polygonal shape into convex pieces. A convex shape is returned as its only piece.
+     *
+     * @param shape the polygonal shape
+     * @return the convex pieces of the shape, in the same coordinates; this array must not be modified
+     */
+    public synchronized Path2D.Double[] decompose(Path2D.Double shape) {
+        Path2D.Double[] pieces = cache.get(shape);
+        if (pieces == null) {
+            polygonAssertionRule.assertPolygonalShape(shape);
+            pieces = findPieces(shape);
+            cache.put(shape, pieces);
+        }
+        return pieces == CONVEX ? new Path2D.Double[] {shape} : pieces;
+    }
+
+    private static Path2D.Double[] findPieces(Path2D.Double shape) {
+        ArrayList<double[]> polygons = getSubpaths(shape);
+        if (polygons.size() == 1 && isConvex(polygons.get(0))) {
+            return CONVEX;
+        }
+
+        ArrayList<Path2D.Double> pieces = new ArrayList<>();
+        for (double[] polygon : polygons) {
+            if (polygon.length < 6) {
+                continue;
+            }
+
+            for (int[] piece : mergeTriangles(polygon, triangulate(polygon))) {
+                Path2D.Double path = new Path2D.Double();
+                path.moveTo(polygon[piece[0] * 2], polygon[piece[0] * 2 + 1]);
+                for (int i = 1; i < piece.length; i++) {
+                    path.lineTo(polygon[piece[i] * 2], polygon[piece[i] * 2 + 1]);
+                }
+                path.closePath();
+                pieces.add(path);
+            }
+        }
+        return pieces.toArray(new Path2D.Double[pieces.size()]);
+    }
+
+    /**
+     * Flattens each subpath of a shape into a polygon with counter-clockwise winding (in a y-up frame), packed as
+     * {x0, y0, x1, y1, ...}. Repeated vertices and collinear vertices are removed.
+     *
+     * @param shape the polygonal shape
+     * @return the polygons of the shape
+     */
+    private static ArrayList<double[]> getSubpaths(Path2D.Double shape) {
+        ArrayList<double[]> polygons = new ArrayList<>();
+        ArrayList<Double> current = new ArrayList<>();
+
+        double[] vertex = new double[6];
+        for (PathIterator iterator = shape.getPathIterator(null); !iterator.isDone(); iterator.next()) {
+            int type = iterator.currentSegment(vertex);
+            if (type == PathIterator.SEG_MOVETO && !current.isEmpty()) {
+                addPolygon(polygons, current);
+                current.clear();
+            }
+            if (type != PathIterator.SEG_CLOSE) {
+                current.add(vertex[0]);
+                current.add(vertex[1]);
+            }
+        }
+        if (!current.isEmpty()) {
+            addPolygon(polygons, current);
+        }
+        return polygons;
+    }
+
+    private static void addPolygon(ArrayList<double[]> polygons, ArrayList<Double> coordinates) {
+        // drop repeated and collinear vertices, which would otherwise be taken as degenerate ears
+        ArrayList<Double> kept = new ArrayList<>(coordinates);
+        boolean changed = true;
+        while (changed && kept.size() >= 6) {
+            changed = false;
+            int count = kept.size() / 2;
+            for (int i = 0; i < count; i++) {
+                int previous = (i + count - 1) % count;
+                int next = (i + 1) % count;
+                double cross = cross(kept.get(previous * 2), kept.get(previous * 2 + 1), kept.get(i * 2),
+                        kept.get(i * 2 + 1), kept.get(next * 2), kept.get(next * 2 + 1));
+                if (Math.abs(cross) <= EPSILON) {
+                    kept.remove(i * 2 + 1);
+                    kept.remove(i * 2);
+                    changed = true;
+                    break;
+                }
+            }
+        }
+
+        double[] polygon = new double[kept.size()];
+        for (int i = 0; i < polygon.length; i++) {
+            polygon[i] = kept.get(i);
+        }
+
+        // make the winding counter-clockwise, so that convex corners have a positive cross product
+        if (getSignedArea(polygon) < 0) {
+            int count = polygon.length / 2;
+            for (int i = 0; i < count / 2; i++) {
+                int j = count - 1 - i;
+                double x = polygon[i * 2];
+                double y = polygon[i * 2 + 1];
+                polygon[i * 2] = polygon[j * 2];
+                polygon[i * 2 + 1] = polygon[j * 2 + 1];
+                polygon[j * 2] = x;
+                polygon[j * 2 + 1] = y;
+            }
+        }
+        polygons.add(polygon);
+    }
+
+    /**
+     * Triangulates a simple polygon by repeatedly clipping off ears: convex corners whose triangle contains no other
+     * vertex.
+     *
+     * @param polygon the packed vertices of the polygon, wound counter-clockwise
+     * @return the triangles, as triples of vertex indices wound counter-clockwise
+     */
+    private static ArrayList<int[]> triangulate(double[] polygon) {
+        ArrayList<Integer> remaining = new ArrayList<>();
+        for (int i = 0; i < polygon.length / 2; i++) {
+            remaining.add(i);
+        }
+
+        ArrayList<int[]> triangles = new ArrayList<>();
+        while (remaining.size() > 3) {
+            int size = remaining.size();
+            int ear = -1;
+            for (int i = 0; i < size && ear == -1; i++) {
+                if (isEar(polygon, remaining, i)) {
+                    ear = i;
+                }
+            }
+
+            // a polygon that is not simple may have no ears, so clip a convex corner instead to make progress
+            if (ear == -1) {
+                ear = 0;
+                for (int i = 0; i < size; i++) {
+                    if (isConvexCorner(polygon, remaining, i)) {
+                        ear = i;
+                        break;
+                    }
+                }
+            }
+
+            triangles.add(new int[] {remaining.get((ear + size - 1) % size), remaining.get(ear),
+                    remaining.get((ear + 1) % size)});
+            remaining.remove(ear);
+        }
+        triangles.add(new int[] {remaining.get(0), remaining.get(1), remaining.get(2)});
+        return triangles;
+    }
+
+    private static boolean isConvexCorner(double[] polygon, ArrayList<Integer> remaining, int i) {
+        int size = remaining.size();
+        int previous = remaining.get((i + size - 1) % size);
+        int current = remaining.get(i);
+        int next = remaining.get((i + 1) % size);
+        return cross(polygon, previous, current, next) > EPSILON;
+    }
+
+    private static boolean isEar(double[] polygon, ArrayList<Integer> remaining, int i) {
+        if (!isConvexCorner(polygon, remaining, i)) {
+            return false;
+        }
+
+        int size = remaining.size();
+        int previous = remaining.get((i + size - 1) % size);
+        int current = remaining.get(i);
+        int next = remaining.get((i + 1) % size);
+        for (int j = 0; j < size; j++) {
+            int other = remaining.get(j);
+            if (other == previous || other == current || other == next) {
+                continue;
+            }
+
+            // a vertex on or inside the triangle means the diagonal would leave the polygon
+            double x = polygon[other * 2];
+            double y = polygon[other * 2 + 1];
+            if (cross(polygon[previous * 2], polygon[previous * 2 + 1], polygon[current * 2],
+                    polygon[current * 2 + 1], x, y) >= 0
+                    && cross(polygon[current * 2], polygon[current * 2 + 1], polygon[next * 2],
+                    polygon[next * 2 + 1], x, y) >= 0
+                    && cross(polygon[next * 2], polygon[next * 2 + 1], polygon[previous * 2],
+                    polygon[previous * 2 + 1], x, y) >= 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Merges triangles across their shared diagonals, as long as the merged pieces stay convex.
+     *
+     * @param polygon the packed vertices of the polygon
+     * @param pieces the triangles of the polygon, as vertex indices wound counter-clockwise
+     * @return the merged pieces
+     */
+    private static ArrayList<int[]> mergeTriangles(double[] polygon, ArrayList<int[]> pieces) {
+        boolean merged = true;
+        while (merged) {
+            merged = false;
+            for (int i = 0; i < pieces.size() && !merged; i++) {
+                for (int j = i + 1; j < pieces.size() && !merged; j++) {
+                    int[] piece = merge(pieces.get(i), pieces.get(j));
+                    if (piece != null && isConvex(polygon, piece)) {
+                        pieces.set(i, piece);
+                        pieces.remove(j);
+                        merged = true;
+                    }
+                }
+            }
+        }
+        return pieces;
+    }
+
+    /**
+     * Joins two pieces along an edge they share, which runs in opposite directions in each.
+     *
+     * @param first the vertex indices of the first piece
+     * @param second the vertex indices of the second piece
+     * @return the vertex indices of the joined piece, or null if the pieces do not share an edge
+     */
+    private static int[] merge(int[] first, int[] second) {
+        for (int i = 0; i < first.length; i++) {
+            int a = first[i];
+            int b = first[(i + 1) % first.length];
+            for (int j = 0; j < second.length; j++) {
+                if (second[j] != b || second[(j + 1) % second.length] != a) {
+                    continue;
+                }
+
+                // walk the first piece from b around to a, then the second piece from after a around to before b
+                int[] piece = new int[first.length + second.length - 2];
+                int count = 0;
+                for (int k = 0; k < first.length; k++) {
+                    piece[count++] = first[(i + 1 + k) % first.length];
+                }
+                for (int k = 2; k < second.length; k++) {
+                    piece[count++] = second[(j + k) % second.length];
+                }
+                return piece;
+            }
+        }
+        return null;
+    }
+
+    private static boolean isConvex(double[] polygon) {
+        int[] piece = new int[polygon.length / 2];
+        for (int i = 0; i < piece.length; i++) {
+            piece[i] = i;
+        }
+        return isConvex(polygon, piece);
+    }
+
+    private static boolean isConvex(double[] polygon, int[] piece) {
+        for (int i = 0; i < piece.length; i++) {
+            if (cross(polygon, piece[(i + piece.length - 1) % piece.length], piece[i],
+                    piece[(i + 1) % piece.length]) < -EPSILON) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static double getSignedArea(double[] polygon) {
+        int count = polygon.length / 2;
+        double area = 0;
+        for (int i = 0; i < count; i++) {
+            int next = (i + 1) % count;
+            area += polygon[i * 2] * polygon[next * 2 + 1] - polygon[next * 2] * polygon[i * 2 + 1];
+        }
+        return area / 2;
+    }
+
+    private static double cross(double[] polygon, int a, int b, int c) {
+        return cross(polygon[a * 2], polygon[a * 2 + 1], polygon[b * 2], polygon[b * 2 + 1], polygon[c * 2],
+                polygon[c * 2 + 1]);
+    }
+
+    /**
+     * @return the cross product of (b - a) and (c - b), which is positive when a, b, c turn counter-clockwise
+     */
+    private static double cross(double ax, double ay, double bx, double by, double cx, double cy) {
+        return (bx - ax) * (cy - by) - (by - ay) * (cx - bx);
+    }
+}
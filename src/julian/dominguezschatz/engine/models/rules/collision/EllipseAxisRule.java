@@ -1,9 +1,6 @@
 package julian.dominguezschatz.engine.models.rules.collision;
 
 import julian.dominguezschatz.engine.models.Body;
-import julian.dominguezschatz.engine.utils.Vector2D;
-
-import java.awt.geom.Point2D;
 
 /**
  * Assignment: Generic Object
@@ -13,8 +10,9 @@ import java.awt.geom.Point2D;
  */
 public class EllipseAxisRule implements AxisRule {
 
-    // constructor
-    public EllipseAxisRule() {
+    @Override
+    public int getAxisCount(Body body) {
+        return 1;
     }
 
     /**
@@ -22,17 +20,30 @@ public class EllipseAxisRule implements AxisRule {
      *
      * @param body1 the first body
      * @param body2 the second body
-     * @return a list of axes for use in the SAT algorithm
+     * @param axes the array to write the axes to
+     * @return the number of axes written
      */
     @Override
-    public Vector2D[] getAxes(Body body1, Body body2) {
-        Point2D.Double position = body1.getPosition();
+    public int getAxes(Body body1, Body body2, double[] axes) {
+        double centerX = body1.getWorldCenterX();
+        double centerY = body1.getWorldCenterY();
 
+        // the closest vertex of the other body is written into the axes array, so that this rule keeps no state
+        // and can be shared between threads
         VertexSelectionRule vertexSelectionRule = body2.getCollider().getVertexSelectionRule();
+        vertexSelectionRule.closest(body2, centerX, centerY, axes);
 
-        Point2D.Double closestVertex = vertexSelectionRule.closest(position, body2.getTransform());
-        Vector2D result = Vector2D.connect(position, closestVertex);
-        result.normalize();
-        return new Vector2D[] {result};
+        double axisX = centerX - axes[0];
+        double axisY = centerY - axes[1];
+        double length = Math.sqrt(axisX * axisX + axisY * axisY);
+        if (length == 0) {
+            // the centers coincide, so any axis will do
+            axes[0] = 1;
+            axes[1] = 0;
+        } else {
+            axes[0] = axisX / length;
+            axes[1] = axisY / length;
+        }
+        return 1;
     }
 }
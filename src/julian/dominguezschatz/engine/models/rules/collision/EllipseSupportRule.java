@@ -0,0 +1,60 @@
+package julian.dominguezschatz.engine.models.rules.collision;
+
+import julian.dominguezschatz.engine.models.Body;
+
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Ellipse2D;
+
+/**
+ * Class: EllipseSupportRule
+ * Author: Julian Dominguez-Schatz
+ * Date: 2026-10-17
+ * Description: Implements a rule that finds the point of an ellipse furthest along a direction. Unlike the SAT
+ * rules, this supports ellipses whose width and height differ.
+ */
+public class EllipseSupportRule implements SupportRule {
+
+    // the squared half-extents of the ellipse, in local coordinates
+    private final double radiusXSq;
+    private final double radiusYSq;
+
+    // the center of the ellipse, in local coordinates
+    private final double centerX;
+    private final double centerY;
+
+    /**
+     * Constructor.
+     * @param shape the shape to find support points of
+     */
+    public EllipseSupportRule(Ellipse2D.Double shape) {
+        radiusXSq = (shape.getWidth() / 2.0) * (shape.getWidth() / 2.0);
+        radiusYSq = (shape.getHeight() / 2.0) * (shape.getHeight() / 2.0);
+        centerX = shape.getCenterX();
+        centerY = shape.getCenterY();
+    }
+
+    @Override
+    public void support(Body body, double directionX, double directionY, double[] point) {
+        AffineTransform transform = body.getTransform();
+        double m00 = transform.getScaleX();
+        double m01 = transform.getShearX();
+        double m10 = transform.getShearY();
+        double m11 = transform.getScaleY();
+
+        // move the direction into local coordinates, using the transpose of the transform
+        double localX = m00 * directionX + m10 * directionY;
+        double localY = m01 * directionX + m11 * directionY;
+
+        // the support point of an axis-aligned ellipse is found by scaling the direction by the squared radii
+        double length = Math.sqrt(radiusXSq * localX * localX + radiusYSq * localY * localY);
+        double supportX = centerX;
+        double supportY = centerY;
+        if (length > 0) {
+            supportX += radiusXSq * localX / length;
+            supportY += radiusYSq * localY / length;
+        }
+
+        point[0] = m00 * supportX + m01 * supportY + transform.getTranslateX();
+        point[1] = m10 * supportX + m11 * supportY + transform.getTranslateY();
+    }
+}
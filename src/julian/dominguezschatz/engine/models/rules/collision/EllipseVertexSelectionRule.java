@@ -1,8 +1,6 @@
 package julian.dominguezschatz.engine.models.rules.collision;
 
-import java.awt.geom.AffineTransform;
-import java.awt.geom.Ellipse2D;
-import java.awt.geom.Point2D;
+import julian.dominguezschatz.engine.models.Body;
 
 /**
  * Assignment: Generic Object
@@ -12,17 +10,9 @@ import java.awt.geom.Point2D;
  */
 public class EllipseVertexSelectionRule implements VertexSelectionRule {
 
-    // the shape this rule targets
-    private final Ellipse2D.Double shape;
-
-    // constructor
-    public EllipseVertexSelectionRule(Ellipse2D.Double shape) {
-        this.shape = shape;
-    }
-
     @Override
-    public Point2D.Double closest(Point2D.Double point, AffineTransform transform) {
-        Point2D.Double position = new Point2D.Double();
-        return (Point2D.Double) transform.transform(position, position);
+    public void closest(Body body, double x, double y, double[] vertex) {
+        vertex[0] = body.getWorldCenterX();
+        vertex[1] = body.getWorldCenterY();
     }
 }
@@ -0,0 +1,478 @@
+package julian.dominguezschatz.engine.models.rules.collision;
+
+import julian.dominguezschatz.engine.models.Body;
+import julian.dominguezschatz.engine.models.CollisionResult;
+
+import java.awt.geom.AffineTransform;
+import java.util.Arrays;
+
+/**
+ * Class: GJKCollisionRule
+ * Author: Julian Dominguez-Schatz
+ * Date: 2026-10-17
+ * Description: Represents a rule that handles collisions between bodies using the Gilbert-Johnson-Keerthi (GJK)
+ * algorithm, with the Expanding Polytope Algorithm (EPA) to find the penetration depth.
+ *
+ * Both algorithms work on the Minkowski difference of the two shapes, which contains the origin if and only if the
+ * shapes overlap. The difference is never built: it is explored only through the support rules of the colliders,
+ * so the cost of a test depends on how many support points are needed rather than on how many edges the shapes
+ * have, and any convex shape with a support rule can be tested.
+ *
+ * When a pair is found to be apart, the search direction that proved it is recorded in its result, and the next test
+ * of the pair checks that direction first, which needs only one support point from each body.
+ *
+ * Like the SAT rule, this rule keeps its own scratch buffers, so an instance must not be shared between threads.
+ *
+ * Solution adapted from:
+ * http://www.dyn4j.org/2010/04/gjk-gilbert-johnson-keerthi/
+ * http://www.dyn4j.org/2010/05/epa-expanding-polytope-algorithm/
+ */
+public class GJKCollisionRule extends AbstractCollisionRule {
+
+    // bounds on the work done for a single test, in case of numerical trouble
+    private static final int MAX_GJK_ITERATIONS = 32;
+    private static final int MAX_EPA_ITERATIONS = 64;
+
+    // EPA stops once a new support point improves the depth by less than this distance
+    private static final double EPA_TOLERANCE = 1e-4;
+
+    // the distance query stops once a new support point improves the squared distance by less than this fraction
+    private static final double DISTANCE_TOLERANCE = 1e-9;
+
+    // the points of the simplex in the Minkowski difference, with the newest point last
+    private final double[] simplexX;
+    private final double[] simplexY;
+    private int simplexCount;
+
+    // the direction to search for the next support point
+    private double directionX;
+    private double directionY;
+
+    // the last support point found in the Minkowski difference
+    private double supportX;
+    private double supportY;
+
+    // an offset applied to the first body, so that it can be tested away from where it is
+    private double offsetX;
+    private double offsetY;
+
+    // the support points of each shape, used while finding a support point of the difference
+    private final double[] point1;
+    private final double[] point2;
+
+    // finds the contact points once the normal is known
+    private final ContactManifoldRule contactManifoldRule;
+
+    // the polytope expanded by EPA, wound counter-clockwise or clockwise depending on the simplex
+    private double[] polytopeX;
+    private double[] polytopeY;
+    private int polytopeCount;
+
+    // default constructor
+    public GJKCollisionRule() {
+        simplexX = new double[3];
+        simplexY = new double[3];
+        point1 = new double[2];
+        point2 = new double[2];
+        polytopeX = new double[16];
+        polytopeY = new double[16];
+        contactManifoldRule = new ContactManifoldRule();
+    }
+
+    /**
+     * Determines whether two bodies are colliding.
+     *
+     * @param first the first body
+     * @param second the second body
+     * @param result the result to write the collision information to
+     * @return whether the bodies are colliding
+     */
+    @Override
+    public boolean isCollision(Body first, Body second, CollisionResult result) {
+        // if the difference is behind the direction that separated the bodies last time, they are still apart
+        if (result.hasSeparatingAxis()) {
+            double axisX = result.getSeparatingAxisX();
+            double axisY = result.getSeparatingAxisY();
+            support(first, second, axisX, axisY);
+            if (supportX * axisX + supportY * axisY < 0) {
+                result.set(false, 0, 0, 0);
+                return false;
+            }
+        }
+
+        if (!containsOrigin(first, second)) {
+            result.set(false, 0, 0, 0);
+            result.setSeparatingAxis(directionX, directionY);
+            return false;
+        }
+
+        result.clearSeparatingAxis();
+        expandPolytope(first, second, result);
+        contactManifoldRule.generate(first, second, result);
+        return true;
+    }
+
+    /**
+     * Finds the distance between two bodies that are not overlapping.
+     *
+     * @param first the first body
+     * @param second the second body
+     * @param normal the array to write the unit direction from the second body to the first body to, as {x, y};
+     *               this is left as {0, 0} if the bodies overlap
+     * @return the distance between the bodies, or 0 if they overlap
+     */
+    public double distance(Body first, Body second, double[] normal) {
+        return distance(first, 0, 0, second, normal);
+    }
+
+    /**
+     * Finds the distance between two bodies that are not overlapping, as if the first body were moved by an offset.
+     * This allows the bodies to be tested at other points along a motion without moving them.
+     *
+     * @param first the first body
+     * @param offsetX the x value of the offset to apply to the first body
+     * @param offsetY the y value of the offset to apply to the first body
+     * @param second the second body
+     * @param normal the array to write the unit direction from the second body to the first body to, as {x, y};
+     *               this is left as {0, 0} if the bodies overlap
+     * @return the distance between the bodies, or 0 if they overlap
+     */
+    public double distance(Body first, double offsetX, double offsetY, Body second, double[] normal) {
+        this.offsetX = offsetX;
+        this.offsetY = offsetY;
+        double distance = findDistance(first, second, normal);
+
+        // the other tests do not use an offset
+        this.offsetX = 0;
+        this.offsetY = 0;
+        return distance;
+    }
+
+    private double findDistance(Body first, Body second, double[] normal) {
+        normal[0] = 0;
+        normal[1] = 0;
+
+        setInitialDirection(first, second);
+        support(first, second, directionX, directionY);
+        simplexCount = 0;
+        pushSimplex();
+
+        // the closest point of the simplex to the origin
+        double closestX = supportX;
+        double closestY = supportY;
+
+        for (int i = 0; i < MAX_GJK_ITERATIONS; i++) {
+            double distanceSq = closestX * closestX + closestY * closestY;
+            if (distanceSq == 0) {
+                return 0;
+            }
+
+            // if the furthest point towards the origin is not any closer, the closest point has been found
+            support(first, second, -closestX, -closestY);
+            if (distanceSq - (closestX * supportX + closestY * supportY) <= DISTANCE_TOLERANCE * distanceSq) {
+                break;
+            }
+
+            pushSimplex();
+            if (!reduceToClosest()) {
+                return 0;
+            }
+            closestX = directionX;
+            closestY = directionY;
+        }
+
+        double distance = Math.sqrt(closestX * closestX + closestY * closestY);
+        if (distance == 0) {
+            return 0;
+        }
+        normal[0] = closestX / distance;
+        normal[1] = closestY / distance;
+        return distance;
+    }
+
+    /**
+     * Finds the support point of the Minkowski difference of two bodies along a direction.
+     *
+     * @param first the first body
+     * @param second the second body
+     * @param x the x component of the direction
+     * @param y the y component of the direction
+     */
+    private void support(Body first, Body second, double x, double y) {
+        first.getCollider().getSupportRule().support(first, x, y, point1);
+        second.getCollider().getSupportRule().support(second, -x, -y, point2);
+        supportX = point1[0] + offsetX - point2[0];
+        supportY = point1[1] + offsetY - point2[1];
+    }
+
+    private void setInitialDirection(Body first, Body second) {
+        AffineTransform transform1 = first.getTransform();
+        AffineTransform transform2 = second.getTransform();
+        directionX = transform1.getTranslateX() + offsetX - transform2.getTranslateX();
+        directionY = transform1.getTranslateY() + offsetY - transform2.getTranslateY();
+        if (directionX == 0 && directionY == 0) {
+            directionX = 1;
+        }
+    }
+
+    private void pushSimplex() {
+        simplexX[simplexCount] = supportX;
+        simplexY[simplexCount] = supportY;
+        simplexCount++;
+    }
+
+    private void removeFromSimplex(int index) {
+        for (int i = index; i < simplexCount - 1; i++) {
+            simplexX[i] = simplexX[i + 1];
+            simplexY[i] = simplexY[i + 1];
+        }
+        simplexCount--;
+    }
+
+    /**
+     * Runs GJK to determine whether the Minkowski difference of two bodies contains the origin. If it does, the
+     * simplex is left as a triangle containing the origin; if it does not, the search direction is usually left
+     * pointing along an axis that separates the bodies.
+     *
+     * @param first the first body
+     * @param second the second body
+     * @return whether the bodies overlap
+     */
+    private boolean containsOrigin(Body first, Body second) {
+        setInitialDirection(first, second);
+        support(first, second, directionX, directionY);
+        simplexCount = 0;
+        pushSimplex();
+        directionX = -supportX;
+        directionY = -supportY;
+
+        for (int i = 0; i < MAX_GJK_ITERATIONS; i++) {
+            if (directionX == 0 && directionY == 0) {
+                // the origin is on the simplex, so the shapes are touching; make sure there is a triangle for EPA
+                if (simplexCount == 3) {
+                    return true;
+                }
+                directionX = 1;
+            }
+
+            support(first, second, directionX, directionY);
+
+            // if the new point did not pass the origin, the origin cannot be in the difference
+            if (supportX * directionX + supportY * directionY < 0) {
+                return false;
+            }
+
+            pushSimplex();
+            if (updateSimplex()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Reduces the simplex to the feature closest to the origin, and points the search direction at the origin.
+     *
+     * @return whether the simplex is a triangle containing the origin
+     */
+    private boolean updateSimplex() {
+        double ax = simplexX[simplexCount - 1];
+        double ay = simplexY[simplexCount - 1];
+
+        if (simplexCount == 2) {
+            double abX = simplexX[0] - ax;
+            double abY = simplexY[0] - ay;
+
+            // search perpendicular to the segment, on the side of the origin
+            directionX = -abY;
+            directionY = abX;
+            if (directionX * -ax + directionY * -ay < 0) {
+                directionX = -directionX;
+                directionY = -directionY;
+            }
+            return false;
+        }
+
+        double abX = simplexX[1] - ax;
+        double abY = simplexY[1] - ay;
+        double acX = simplexX[0] - ax;
+        double acY = simplexY[0] - ay;
+
+        // the normal of each edge next to the newest point, facing away from the triangle
+        double abPerpX = -abY;
+        double abPerpY = abX;
+        if (abPerpX * acX + abPerpY * acY > 0) {
+            abPerpX = -abPerpX;
+            abPerpY = -abPerpY;
+        }
+        double acPerpX = -acY;
+        double acPerpY = acX;
+        if (acPerpX * abX + acPerpY * abY > 0) {
+            acPerpX = -acPerpX;
+            acPerpY = -acPerpY;
+        }
+
+        if (abPerpX * -ax + abPerpY * -ay > 0) {
+            removeFromSimplex(0);
+            directionX = abPerpX;
+            directionY = abPerpY;
+            return false;
+        }
+        if (acPerpX * -ax + acPerpY * -ay > 0) {
+            removeFromSimplex(1);
+            directionX = acPerpX;
+            directionY = acPerpY;
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Reduces the simplex to the smallest feature holding its closest point to the origin, and stores that point
+     * in the search direction.
+     *
+     * @return false if the simplex is a triangle containing the origin
+     */
+    private boolean reduceToClosest() {
+        if (simplexCount == 3) {
+            double ax = simplexX[0];
+            double ay = simplexY[0];
+            double bx = simplexX[1];
+            double by = simplexY[1];
+            double cx = simplexX[2];
+            double cy = simplexY[2];
+
+            // the origin is inside the triangle if it is on the same side of every edge
+            double side1 = (bx - ax) * -ay - (by - ay) * -ax;
+            double side2 = (cx - bx) * -by - (cy - by) * -bx;
+            double side3 = (ax - cx) * -cy - (ay - cy) * -cx;
+            if ((side1 >= 0 && side2 >= 0 && side3 >= 0) || (side1 <= 0 && side2 <= 0 && side3 <= 0)) {
+                return false;
+            }
+
+            // keep whichever edge is closest to the origin
+            double distanceAB = segmentDistanceSq(ax, ay, bx, by);
+            double distanceBC = segmentDistanceSq(bx, by, cx, cy);
+            double distanceCA = segmentDistanceSq(cx, cy, ax, ay);
+            if (distanceAB <= distanceBC && distanceAB <= distanceCA) {
+                removeFromSimplex(2);
+            } else if (distanceBC <= distanceCA) {
+                removeFromSimplex(0);
+            } else {
+                removeFromSimplex(1);
+            }
+        }
+
+        if (simplexCount == 2) {
+            double ax = simplexX[0];
+            double ay = simplexY[0];
+            double abX = simplexX[1] - ax;
+            double abY = simplexY[1] - ay;
+            double lengthSq = abX * abX + abY * abY;
+            double t = lengthSq == 0 ? 0 : -(ax * abX + ay * abY) / lengthSq;
+            if (t <= 0) {
+                removeFromSimplex(1);
+            } else if (t >= 1) {
+                removeFromSimplex(0);
+            } else {
+                directionX = ax + t * abX;
+                directionY = ay + t * abY;
+                return true;
+            }
+        }
+
+        directionX = simplexX[0];
+        directionY = simplexY[0];
+        return true;
+    }
+
+    /**
+     * @return the squared distance from the origin to a segment
+     */
+    private static double segmentDistanceSq(double ax, double ay, double bx, double by) {
+        double abX = bx - ax;
+        double abY = by - ay;
+        double lengthSq = abX * abX + abY * abY;
+        double t = lengthSq == 0 ? 0 : Math.max(0, Math.min(1, -(ax * abX + ay * abY) / lengthSq));
+        double x = ax + t * abX;
+        double y = ay + t * abY;
+        return x * x + y * y;
+    }
+
+    /**
+     * Runs EPA, starting from the triangle left by GJK, to find the edge of the Minkowski difference closest to the
+     * origin. The normal of that edge is the collision normal, and its distance is the penetration depth.
+     *
+     * @param first the first body
+     * @param second the second body
+     * @param result the result to write to
+     */
+    private void expandPolytope(Body first, Body second, CollisionResult result) {
+        polytopeCount = 0;
+        for (int i = 0; i < simplexCount; i++) {
+            polytopeX[polytopeCount] = simplexX[i];
+            polytopeY[polytopeCount] = simplexY[i];
+            polytopeCount++;
+        }
+
+        // the sign of the area tells which side of each edge is outside
+        double area = (polytopeX[1] - polytopeX[0]) * (polytopeY[2] - polytopeY[0])
+                - (polytopeY[1] - polytopeY[0]) * (polytopeX[2] - polytopeX[0]);
+        double winding = area < 0 ? -1 : 1;
+
+        double normalX = 1;
+        double normalY = 0;
+        double depth = 0;
+        for (int iteration = 0; iteration < MAX_EPA_ITERATIONS; iteration++) {
+            // find the edge closest to the origin
+            int insertAt = -1;
+            double minDistance = Double.POSITIVE_INFINITY;
+            for (int i = 0; i < polytopeCount; i++) {
+                int next = (i + 1) % polytopeCount;
+                double edgeX = polytopeX[next] - polytopeX[i];
+                double edgeY = polytopeY[next] - polytopeY[i];
+                double length = Math.sqrt(edgeX * edgeX + edgeY * edgeY);
+                if (length == 0) {
+                    continue;
+                }
+
+                double edgeNormalX = winding * edgeY / length;
+                double edgeNormalY = -winding * edgeX / length;
+                double distance = edgeNormalX * polytopeX[i] + edgeNormalY * polytopeY[i];
+                if (distance < minDistance) {
+                    minDistance = distance;
+                    normalX = edgeNormalX;
+                    normalY = edgeNormalY;
+                    insertAt = next;
+                }
+            }
+            if (insertAt == -1) {
+                break;
+            }
+            depth = minDistance;
+
+            // if the difference does not extend past the edge, the edge is on its boundary
+            support(first, second, normalX, normalY);
+            if (supportX * normalX + supportY * normalY - minDistance < EPA_TOLERANCE) {
+                break;
+            }
+
+            // otherwise, split the edge at the new point
+            if (polytopeCount == polytopeX.length) {
+                polytopeX = Arrays.copyOf(polytopeX, polytopeCount * 2);
+                polytopeY = Arrays.copyOf(polytopeY, polytopeCount * 2);
+            }
+            if (insertAt == 0) {
+                insertAt = polytopeCount;
+            }
+            System.arraycopy(polytopeX, insertAt, polytopeX, insertAt + 1, polytopeCount - insertAt);
+            System.arraycopy(polytopeY, insertAt, polytopeY, insertAt + 1, polytopeCount - insertAt);
+            polytopeX[insertAt] = supportX;
+            polytopeY[insertAt] = supportY;
+            polytopeCount++;
+        }
+
+        // the edge normal points away from the first body, so it is reversed to push the first body out
+        result.set(true, -normalX, -normalY, Math.max(0, depth));
+    }
+}
@@ -0,0 +1,31 @@
+package julian.dominguezschatz.engine.models.rules.collision;
+
+import julian.dominguezschatz.engine.models.Body;
+
+/**
+ * Class: PolygonSupportRule
+ * Author: Julian Dominguez-Schatz
+ * Date: 2026-10-17
+ * Description: Implements a rule that finds the vertex of a convex polygon furthest along a direction.
+ */
+public class PolygonSupportRule implements SupportRule {
+
+    // constructor
+    public PolygonSupportRule() {
+    }
+
+    @Override
+    public void support(Body body, double directionX, double directionY, double[] point) {
+        double[] vertices = body.getWorldVertices();
+
+        double max = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < vertices.length; i += 2) {
+            double projection = directionX * vertices[i] + directionY * vertices[i + 1];
+            if (projection > max) {
+                max = projection;
+                point[0] = vertices[i];
+                point[1] = vertices[i + 1];
+            }
+        }
+    }
+}
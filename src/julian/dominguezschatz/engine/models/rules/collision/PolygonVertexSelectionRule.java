@@ -1,10 +1,6 @@
 package julian.dominguezschatz.engine.models.rules.collision;
 
-import java.awt.geom.AffineTransform;
-import java.awt.geom.Path2D;
-import java.awt.geom.PathIterator;
-import java.awt.geom.Point2D;
-import java.util.Arrays;
+import julian.dominguezschatz.engine.models.Body;
 
 /**
  * Assignment: Generic Object
@@ -15,35 +11,25 @@ import java.util.Arrays;
  */
 public class PolygonVertexSelectionRule implements VertexSelectionRule {
 
-    // the shape this rule targets
-    private final Path2D.Double shape;
-
     // constructor
-    public PolygonVertexSelectionRule(Path2D.Double shape) {
-        this.shape = shape;
+    public PolygonVertexSelectionRule() {
     }
 
     @Override
-    public Point2D.Double closest(Point2D.Double point, AffineTransform transform) {
-        double distSq = -1;
-
-        // required for using paths
-        double[] vertex = new double[6];
-        double[] closestVertex = new double[6];
-        for (PathIterator iterator = shape.getPathIterator(transform); !iterator.isDone(); iterator.next()){
-            int type = iterator.currentSegment(vertex);
+    public void closest(Body body, double x, double y, double[] vertex) {
+        double[] vertices = body.getWorldVertices();
 
-            // if the shape is closing, ignore the segment
-            if (type == PathIterator.SEG_CLOSE) {
-                continue;
-            }
+        double distSq = Double.POSITIVE_INFINITY;
+        for (int i = 0; i < vertices.length; i += 2) {
+            double vertexX = vertices[i];
+            double vertexY = vertices[i + 1];
 
-            double newDistSq = Math.pow(point.getX() - vertex[0], 2) + Math.pow(point.getY() - vertex[1], 2);
-            if (distSq == -1 || newDistSq < distSq) {
+            double newDistSq = (x - vertexX) * (x - vertexX) + (y - vertexY) * (y - vertexY);
+            if (newDistSq < distSq) {
                 distSq = newDistSq;
-                closestVertex = Arrays.copyOf(vertex, vertex.length);
+                vertex[0] = vertexX;
+                vertex[1] = vertexY;
             }
         }
-        return new Point2D.Double(closestVertex[0], closestVertex[1]);
     }
 }
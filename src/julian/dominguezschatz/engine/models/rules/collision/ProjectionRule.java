@@ -1,9 +1,6 @@
 package julian.dominguezschatz.engine.models.rules.collision;
 
-import julian.dominguezschatz.engine.models.IntervalDouble;
-import julian.dominguezschatz.engine.utils.Vector2D;
-
-import java.awt.geom.AffineTransform;
+import julian.dominguezschatz.engine.models.Body;
 
 /**
  * Assignment: Generic Object
@@ -13,5 +10,13 @@ import java.awt.geom.AffineTransform;
  */
 public interface ProjectionRule {
 
-    IntervalDouble project(AffineTransform transform, Vector2D axis);
+    /**
+     * Projects a body's shape onto an axis.
+     *
+     * @param body the body to project
+     * @param axisX the x component of the normalized axis
+     * @param axisY the y component of the normalized axis
+     * @param interval the array to write the projection to, as {min, max}
+     */
+    void project(Body body, double axisX, double axisY, double[] interval);
 }
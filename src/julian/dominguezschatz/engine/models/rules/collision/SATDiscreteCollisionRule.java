@@ -1,11 +1,14 @@
 package julian.dominguezschatz.engine.models.rules.collision;
 
 import julian.dominguezschatz.engine.models.Body;
+import julian.dominguezschatz.engine.models.BodyPair;
+import julian.dominguezschatz.engine.models.Collider;
+import julian.dominguezschatz.engine.models.CollisionBatch;
 import julian.dominguezschatz.engine.models.CollisionResult;
-import julian.dominguezschatz.engine.models.IntervalDouble;
-import julian.dominguezschatz.engine.utils.Vector2D;
+import julian.dominguezschatz.engine.models.ShapeGeometry;
 
-import java.awt.geom.Point2D;
+import java.awt.geom.AffineTransform;
+import java.util.Arrays;
 
 /**
  * Class: SATDiscreteCollisionRule
@@ -13,45 +16,100 @@ import java.awt.geom.Point2D;
  * Date: 22/04/2017
  * Description: Represents a rule that handles collisions between bodies using discrete collision detection.
  *
+ * When a pair is found to be apart, the axis that separated it is recorded in its result. The next test of the
+ * pair tries that axis before any others, so pairs that stay apart usually need just one projection of each body.
+ *
+ * Pairs of shapes with a specialized test in the dispatch table, such as circles, use that test instead of SAT.
+ *
+ * The rule keeps its own scratch buffers for axes and projections, so testing and resolving collisions does not
+ * allocate. Because of this, an instance must not be shared between threads.
+ *
  * Solution adapted from:
  * http://www.phailed.me/2011/02/polygonal-collision-detection/
  * http://www.sevenson.com.au/actionscript/sat/
  */
-public class SATDiscreteCollisionRule implements CollisionRule {
+public class SATDiscreteCollisionRule extends AbstractCollisionRule {
+
+    // the specialized tests for particular pairs of shapes
+    private final ShapePairDispatchTable dispatchTable;
+
+    // finds the contact points of colliding polygons
+    private final ContactManifoldRule contactManifoldRule;
+
+    // the axes being tested, in the form {x0, y0, x1, y1, ...}
+    private double[] axes;
+
+    // the projections of each body onto the axis being tested, as {min, max}
+    private final double[] interval1;
+    private final double[] interval2;
+
+    // the smallest overlap found so far, and the axis it was found on
+    private double minOverlap;
+    private double minAxisX;
+    private double minAxisY;
+
+    // default constructor
+    public SATDiscreteCollisionRule() {
+        dispatchTable = new ShapePairDispatchTable();
+        contactManifoldRule = new ContactManifoldRule();
+        axes = new double[16];
+        interval1 = new double[2];
+        interval2 = new double[2];
+    }
 
     /**
-     * @param axes the list of axes to test
+     * Tests the axes of one body, updating the smallest overlap found.
+     *
+     * @param axisBody the body to take the axes from
+     * @param otherBody the other body
      * @param body1 the first body
      * @param body2 the second body
-     * @return whether the two bodies overlap on all the axes provided
+     * @param result the result to record a separating axis in
+     * @return whether the two bodies overlap on all the axes tested
      */
-    private Vector2D shapesOverlapForAxes(Vector2D[] axes, Body body1, Body body2) {
+    private boolean shapesOverlapForAxes(Body axisBody, Body otherBody, Body body1, Body body2,
+                                         CollisionResult result) {
+        AxisRule axisRule = axisBody.getCollider().getAxisRule();
+        int maxCount = axisRule.getAxisCount(axisBody);
+        if (axes.length < maxCount * 2) {
+            axes = Arrays.copyOf(axes, maxCount * 2);
+        }
+        int count = axisRule.getAxes(axisBody, otherBody, axes);
+
         ProjectionRule projectionRule1 = body1.getCollider().getProjectionRule();
         ProjectionRule projectionRule2 = body2.getCollider().getProjectionRule();
-
-        Vector2D mtv = new Vector2D();
-        boolean mtvSet = false;
-
-        for (Vector2D axis : axes) {
-            IntervalDouble interval1 = projectionRule1.project(body1.getTransform(), axis);
-            IntervalDouble interval2 = projectionRule2.project(body2.getTransform(), axis);
-            if (!interval1.overlaps(interval2)) {
-                return null;
+        for (int i = 0; i < count; i++) {
+            double axisX = axes[i * 2];
+            double axisY = axes[i * 2 + 1];
+            projectionRule1.project(body1, axisX, axisY, interval1);
+            projectionRule2.project(body2, axisX, axisY, interval2);
+            if (interval1[0] > interval2[1] || interval2[0] > interval1[1]) {
+                result.setSeparatingAxis(axisX, axisY);
+                return false;
             }
 
             // If the new pushback is less than the current one, update the MTV.
-            double dist = interval1.getOverlap(interval2);
-            if (!mtvSet || dist < mtv.getMagnitude()) {
-                mtvSet = true;
-                mtv.setPolar(dist, axis.getDirection());
+            double overlap = Math.min(interval1[1], interval2[1]) - Math.max(interval1[0], interval2[0]);
+            if (overlap < minOverlap) {
+                minOverlap = overlap;
+                minAxisX = axisX;
+                minAxisY = axisY;
             }
         }
-        return mtv;
+        return true;
     }
 
-    private Vector2D[] obtainAxes(Body body1, Body body2) {
-        AxisRule axisRule = body1.getCollider().getAxisRule();
-        return axisRule.getAxes(body1, body2);
+    /**
+     * @param body1 the first body
+     * @param body2 the second body
+     * @param axisX the x value of the axis
+     * @param axisY the y value of the axis
+     * @return whether the projections of the bodies onto an axis are apart
+     */
+    private boolean isSeparatingAxis(Body body1, Body body2, double axisX, double axisY) {
+        body1.getCollider().getProjectionRule().project(body1, axisX, axisY, interval1);
+        body2.getCollider().getProjectionRule().project(body2, axisX, axisY, interval2);
+        return interval1[0] > interval2[1] || interval2[0] > interval1[1];
     }
 
     /**
@@ -63,81 +121,134 @@ public class SATDiscreteCollisionRule implements CollisionRule {
      *
      * @param body1 the first body
      * @param body2 the second body
-     * @return collision information
+     * @param result the result to write the collision information to
+     * @return whether the bodies are colliding
      */
-    public CollisionResult isCollision(Body body1, Body body2) {
-        Vector2D[] axes1 = obtainAxes(body1, body2);
-        Vector2D[] axes2 = obtainAxes(body2, body1);
-
-        Vector2D collisionResult1 = shapesOverlapForAxes(axes1, body1, body2);
-        Vector2D collisionResult2 = shapesOverlapForAxes(axes2, body1, body2);
-
-        Vector2D mtv = null;
-        boolean collision = (collisionResult1 != null && collisionResult2 != null);
-        if (collision) {
-            if (collisionResult1.getMagnitude() > collisionResult2.getMagnitude()) {
-                mtv = collisionResult2;
-            } else {
-                mtv = collisionResult1;
-            }
+    @Override
+    public boolean isCollision(Body body1, Body body2, CollisionResult result) {
+        ShapePairRule shapePairRule = dispatchTable.get(body1, body2);
+        if (shapePairRule != null) {
+            return shapePairRule.isCollision(body1, body2, result);
+        }
 
-            // make sure the vector is pointing from body1 to body2
-            Point2D.Double c1 = body1.getPosition();
-            Point2D.Double c2 = body2.getPosition();
-            Vector2D cToc = Vector2D.connect(c1, c2);
-            if (cToc.dot(mtv) < 0) {
-                // negate the MTV if it is not
-                mtv.setDirection(mtv.getDirection() + 180);
-            }
+        // try the axis that separated the bodies last time first
+        if (result.hasSeparatingAxis() && isSeparatingAxis(body1, body2,
+                result.getSeparatingAxisX(), result.getSeparatingAxisY())) {
+            result.set(false, 0, 0, 0);
+            return false;
         }
 
-        return new CollisionResult(collision, mtv);
-    }
+        minOverlap = Double.POSITIVE_INFINITY;
+        if (!shapesOverlapForAxes(body1, body2, body1, body2, result)
+                || !shapesOverlapForAxes(body2, body1, body1, body2, result)) {
+            result.set(false, 0, 0, 0);
+            return false;
+        }
+        result.clearSeparatingAxis();
 
-    private double getPercentMass(Body first, Body second) {
-        if (second.getMass() == Body.INFINITE_MASS) {
-            return 1;
+        // make sure the vector is pointing from body2 to body1, so that it pushes body1 away. The centroids are
+        // compared rather than the positions, since a turned body's origin may lie on the far side of the other body
+        if (getCentroidAlong(body1, minAxisX, minAxisY) < getCentroidAlong(body2, minAxisX, minAxisY)) {
+            minAxisX = -minAxisX;
+            minAxisY = -minAxisY;
         }
-        return first.getMass() / second.getMass();
+
+        result.set(true, minAxisX, minAxisY, minOverlap);
+        contactManifoldRule.generate(body1, body2, result);
+        return true;
     }
 
     /**
-     * @param first the first body
-     * @param second the second body
-     * @param mtv the minimum translation vector
+     * @param body the body
+     * @param axisX the x value of the axis
+     * @param axisY the y value of the axis
+     * @return the projection of the centroid of a body's shape, in world coordinates, onto an axis
      */
-    public void resolveCollision(Body first, Body second, Vector2D mtv) {
-        double percent1 = getPercentMass(first, second);
-        double percent2 = getPercentMass(second, first);
-
-        // push the objects apart so they are tangent
-        first.translate(percent1 * mtv.getX(), percent1 * mtv.getY());
-        second.translate(percent2 * -mtv.getX(), percent2 * -mtv.getY());
-
-        Vector2D relativeVelocity = first.getVelocity().clone();
-        relativeVelocity.subtract(second.getVelocity());
-
-        Vector2D normal = mtv;
-        normal.normalize();
+    private static double getCentroidAlong(Body body, double axisX, double axisY) {
+        ShapeGeometry geometry = body.getCollider().getGeometry();
+        AffineTransform transform = body.getTransform();
+        double centroidX = geometry.getCentroidX();
+        double centroidY = geometry.getCentroidY();
+
+        double worldX = transform.getScaleX() * centroidX + transform.getShearX() * centroidY
+                + transform.getTranslateX();
+        double worldY = transform.getShearY() * centroidX + transform.getScaleY() * centroidY
+                + transform.getTranslateY();
+        return worldX * axisX + worldY * axisY;
+    }
 
-        double velocityAlongNormal = relativeVelocity.dotPolar(normal);
+    /**
+     * Tests a group of a batch. Groups whose shape types have a specialized test call it directly. The built-in
+     * tests each get a loop of their own, typed to their class, so that every call in those loops only ever sees one
+     * class; tests registered by callers share a general loop.
+     *
+     * @param group the group, numbered firstType * Collider.SHAPE_TYPE_COUNT + secondType
+     * @param pairs the pairs of the batch
+     * @param batch the batch the pairs were grouped by
+     * @return the number of pairs in the group that are colliding
+     */
+    @Override
+    public int collideGroup(int group, BodyPair[] pairs, CollisionBatch batch) {
+        int firstType = group / Collider.SHAPE_TYPE_COUNT;
+        int secondType = group % Collider.SHAPE_TYPE_COUNT;
+        ShapePairRule shapePairRule = dispatchTable.getRegistered(firstType, secondType);
+        boolean swapped = dispatchTable.isSwapped(firstType, secondType);
+        if (shapePairRule == null) {
+            return super.collideGroup(group, pairs, batch);
+        } else if (shapePairRule instanceof CircleCircleCollisionRule) {
+            return collideCircles((CircleCircleCollisionRule) shapePairRule, group, pairs, batch);
+        } else if (shapePairRule instanceof CirclePolygonCollisionRule) {
+            return collideCirclesAndPolygons((CirclePolygonCollisionRule) shapePairRule, swapped, group, pairs,
+                    batch);
+        }
 
-        // get lowest elasticity
-        double firstRestitution = first.getCollider().getMaterial().getRestitution();
-        double secondRestitution = second.getCollider().getMaterial().getRestitution();
-        double restitution = Math.min(firstRestitution, secondRestitution);
+        ShapePairRule adaptedRule = dispatchTable.get(firstType, secondType);
+        int collisions = 0;
+        for (int i = batch.getGroupStart(group); i < batch.getGroupEnd(group); i++) {
+            BodyPair pair = pairs[batch.getOrderedPair(i)];
+            if (adaptedRule.isCollision(pair.getFirst(), pair.getSecond(), pair.getResult())) {
+                collisions++;
+            }
+        }
+        return collisions;
+    }
 
-        // apply the impulse
-        normal.scale(velocityAlongNormal);
-        normal.scale(-(1 + restitution));
+    private static int collideCircles(CircleCircleCollisionRule rule, int group, BodyPair[] pairs,
+                                      CollisionBatch batch) {
+        int collisions = 0;
+        for (int i = batch.getGroupStart(group); i < batch.getGroupEnd(group); i++) {
+            BodyPair pair = pairs[batch.getOrderedPair(i)];
+            if (rule.isCollision(pair.getFirst(), pair.getSecond(), pair.getResult())) {
+                collisions++;
+            }
+        }
+        return collisions;
+    }
 
-        Vector2D aImpulse = normal.clone();
-        aImpulse.scale(first.getReciprocalMass() / (first.getReciprocalMass() + second.getReciprocalMass()));
-        Vector2D bImpulse = normal.clone();
-        bImpulse.scale(second.getReciprocalMass() / (first.getReciprocalMass() + second.getReciprocalMass()));
+    /**
+     * Tests a group of circles and polygons, in either order. The rule expects the circle first, so when the
+     * polygon comes first the bodies are swapped here and the normal reversed, rather than through an adapter.
+     */
+    private static int collideCirclesAndPolygons(CirclePolygonCollisionRule rule, boolean swapped, int group,
+                                                 BodyPair[] pairs, CollisionBatch batch) {
+        int collisions = 0;
+        for (int i = batch.getGroupStart(group); i < batch.getGroupEnd(group); i++) {
+            BodyPair pair = pairs[batch.getOrderedPair(i)];
+            CollisionResult result = pair.getResult();
+            if (swapped ? rule.isCollision(pair.getSecond(), pair.getFirst(), result)
+                    : rule.isCollision(pair.getFirst(), pair.getSecond(), result)) {
+                if (swapped) {
+                    // the normal pushes the circle away, but it must push the first body away
+                    result.flipNormal();
+                }
+                collisions++;
+            }
+        }
+        return collisions;
+    }
 
-        first.getVelocity().add(aImpulse);
-        second.getVelocity().subtract(bImpulse);
+    public ShapePairDispatchTable getDispatchTable() {
+        return dispatchTable;
     }
 
 }
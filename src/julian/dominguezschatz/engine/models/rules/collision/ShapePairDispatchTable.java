@@ -0,0 +1,116 @@
+package julian.dominguezschatz.engine.models.rules.collision;
+
+import julian.dominguezschatz.engine.models.Body;
+import julian.dominguezschatz.engine.models.Collider;
+import julian.dominguezschatz.engine.models.CollisionResult;
+
+/**
+ * Class: ShapePairDispatchTable
+ * Author: Julian Dominguez-Schatz
+ * Date: 2026-10-17
+ * Description: Represents a table of specialized collision tests, indexed by the shape types of the two bodies being
+ * tested. Pairs of shapes without an entry fall back to a general test.
+ */
+public class ShapePairDispatchTable {
+
+    // the rule for each pair of shape types, or null
+    private final ShapePairRule[][] rules;
+
+    // the rule registered for each pair of shape types in either order, before any swapping, or null
+    private final ShapePairRule[][] registeredRules;
+
+    // whether the registered rule for each pair of shape types expects its bodies in the opposite order
+    private final boolean[][] swapped;
+
+    /**
+     * Default constructor. Registers the closed-form tests for circles against circles and polygons.
+     */
+    public ShapePairDispatchTable() {
+        rules = new ShapePairRule[Collider.SHAPE_TYPE_COUNT][Collider.SHAPE_TYPE_COUNT];
+        registeredRules = new ShapePairRule[Collider.SHAPE_TYPE_COUNT][Collider.SHAPE_TYPE_COUNT];
+        swapped = new boolean[Collider.SHAPE_TYPE_COUNT][Collider.SHAPE_TYPE_COUNT];
+
+        register(Collider.SHAPE_CIRCLE, Collider.SHAPE_CIRCLE, new CircleCircleCollisionRule());
+        register(Collider.SHAPE_CIRCLE, Collider.SHAPE_POLYGON, new CirclePolygonCollisionRule());
+    }
+
+    /**
+     * Registers a rule for a pair of shape types. The rule is also used, with the bodies swapped, for the reverse
+     * pair of shape types.
+     *
+     * @param firstType the shape type of the first body the rule expects
+     * @param secondType the shape type of the second body the rule expects
+     * @param rule the rule to use, or null to use the general test
+     */
+    public void register(int firstType, int secondType, ShapePairRule rule) {
+        rules[firstType][secondType] = rule;
+        registeredRules[firstType][secondType] = rule;
+        swapped[firstType][secondType] = false;
+        if (firstType != secondType) {
+            rules[secondType][firstType] = rule == null ? null : new SwappedShapePairRule(rule);
+            registeredRules[secondType][firstType] = rule;
+            swapped[secondType][firstType] = true;
+        }
+    }
+
+    /**
+     * @param first the first body
+     * @param second the second body
+     * @return the rule to use to test the bodies, or null if the general test should be used
+     */
+    public ShapePairRule get(Body first, Body second) {
+        return rules[first.getCollider().getShapeType()][second.getCollider().getShapeType()];
+    }
+
+    /**
+     * @param firstType the shape type of the first body
+     * @param secondType the shape type of the second body
+     * @return the rule to use to test bodies of those shape types, or null if the general test should be used
+     */
+    public ShapePairRule get(int firstType, int secondType) {
+        return rules[firstType][secondType];
+    }
+
+    /**
+     * @param firstType the shape type of the first body
+     * @param secondType the shape type of the second body
+     * @return the rule registered for bodies of those shape types, which expects its bodies in the opposite order
+     *         if isSwapped says so, or null if the general test should be used
+     */
+    public ShapePairRule getRegistered(int firstType, int secondType) {
+        return registeredRules[firstType][secondType];
+    }
+
+    /**
+     * @param firstType the shape type of the first body
+     * @param secondType the shape type of the second body
+     * @return whether the rule registered for bodies of those shape types expects its bodies in the opposite order
+     */
+    public boolean isSwapped(int firstType, int secondType) {
+        return swapped[firstType][secondType];
+    }
+
+    /**
+     * Adapts a rule to accept its bodies in the opposite order.
+     */
+    private static class SwappedShapePairRule implements ShapePairRule {
+
+        // the rule being adapted
+        private final ShapePairRule rule;
+
+        SwappedShapePairRule(ShapePairRule rule) {
+            this.rule = rule;
+        }
+
+        @Override
+        public boolean isCollision(Body first, Body second, CollisionResult result) {
+            if (!rule.isCollision(second, first, result)) {
+                return false;
+            }
+
+            // the normal pushes the second body away, so it must be reversed
+            result.flipNormal();
+            return true;
+        }
+    }
+}
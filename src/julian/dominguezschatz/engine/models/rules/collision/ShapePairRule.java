@@ -0,0 +1,24 @@
+package julian.dominguezschatz.engine.models.rules.collision;
+
+import julian.dominguezschatz.engine.models.Body;
+import julian.dominguezschatz.engine.models.CollisionResult;
+
+/**
+ * Class: ShapePairRule
+ * Author: Julian Dominguez-Schatz
+ * Date: 2026-10-17
+ * Description: Represents a rule that tests for a collision between two bodies with specific kinds of shapes.
+ */
+public interface ShapePairRule {
+
+    /**
+     * Determines whether two bodies are colliding. The normal written to the result must push the first body away
+     * from the second.
+     *
+     * @param first the first body
+     * @param second the second body
+     * @param result the result to write to
+     * @return whether the bodies are colliding
+     */
+    boolean isCollision(Body first, Body second, CollisionResult result);
+}
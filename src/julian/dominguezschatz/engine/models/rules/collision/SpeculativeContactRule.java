@@ -0,0 +1,97 @@
+package julian.dominguezschatz.engine.models.rules.collision;
+
+import julian.dominguezschatz.engine.models.Body;
+import julian.dominguezschatz.engine.models.CollisionResult;
+import julian.dominguezschatz.engine.utils.Vector2D;
+
+/**
+ * Class: SpeculativeContactRule
+ * Author: Julian Dominguez-Schatz
+ * Date: 2026-10-17
+ * Description: Implements a rule that creates contacts between bodies that are close to each other but not yet
+ * touching, as a cheaper alternative to finding their time of impact.
+ *
+ * The gap between the bodies is found using the GJK distance. If the bodies are approaching fast enough to close
+ * the gap within the next step, contacts are created between them as if they were touching, but with a negative
+ * depth equal to the gap at each point. The solver lets such a contact close its gap during the next step but no
+ * more, so only the part of the approaching velocity that would carry the bodies past each other is removed, and
+ * they end the next step touching. Bodies that are not approaching fast enough get no contacts, so nothing is
+ * applied to bodies that merely pass close by. The rotation of the bodies is ignored when deciding whether they
+ * are approaching.
+ *
+ * Solution adapted from:
+ * https://box2d.org/files/ErinCatto_ContinuousCollision_GDC2013.pdf
+ */
+public class SpeculativeContactRule {
+
+    // used to find the gap between the bodies
+    private final GJKCollisionRule distanceRule;
+
+    // used to find the contact points of the bodies, once the normal and gap are known
+    private final ContactManifoldRule contactManifoldRule;
+
+    // the unit direction from the second body to the first body
+    private final double[] normal;
+
+    // default constructor
+    public SpeculativeContactRule() {
+        distanceRule = new GJKCollisionRule();
+        contactManifoldRule = new ContactManifoldRule();
+        normal = new double[2];
+    }
+
+    /**
+     * Creates the contacts of two separated bodies that will close the gap between them before the end of the next
+     * step.
+     *
+     * @param first the first body
+     * @param second the second body
+     * @param deltaTime the duration of the next step in milliseconds
+     * @param result the result to write the contacts to, which is only changed if contacts are created
+     * @return whether contacts were created
+     */
+    public boolean isContact(Body first, Body second, double deltaTime, CollisionResult result) {
+        return isContact(first, first, second, second, deltaTime, result);
+    }
+
+    /**
+     * Creates the contacts between a part of each of two separated bodies that will close the gap between them
+     * before the end of the next step. The parts are the children of compound bodies.
+     *
+     * @param first the first body
+     * @param firstPart the part of the first body
+     * @param second the second body
+     * @param secondPart the part of the second body
+     * @param deltaTime the duration of the next step in milliseconds
+     * @param result the result to write the contacts to, which is only changed if contacts are created
+     * @return whether contacts were created
+     */
+    public boolean isContact(Body first, Body firstPart, Body second, Body secondPart, double deltaTime,
+                             CollisionResult result) {
+        if (first.getReciprocalMass() + second.getReciprocalMass() == 0 || deltaTime <= 0) {
+            return false;
+        }
+
+        // overlapping bodies are handled by the discrete test
+        double distance = distanceRule.distance(firstPart, secondPart, normal);
+        if (distance == 0) {
+            return false;
+        }
+
+        Vector2D firstVelocity = first.getVelocity();
+        Vector2D secondVelocity = second.getVelocity();
+        double velocityAlongNormal = (firstVelocity.getX() - secondVelocity.getX()) * normal[0]
+                + (firstVelocity.getY() - secondVelocity.getY()) * normal[1];
+
+        // the fastest the bodies can approach each other without passing the gap in the next step
+        double closingVelocity = -distance / (deltaTime / 1000.0);
+        if (velocityAlongNormal >= closingVelocity) {
+            return false;
+        }
+
+        // the bodies have not touched yet, so the result is not a collision, but its contacts are solved like one
+        result.set(false, normal[0], normal[1], -distance);
+        contactManifoldRule.generate(firstPart, secondPart, result);
+        return result.getContactCount() > 0;
+    }
+}
@@ -0,0 +1,23 @@
+package julian.dominguezschatz.engine.models.rules.collision;
+
+import julian.dominguezschatz.engine.models.Body;
+
+/**
+ * Class: SupportRule
+ * Author: Julian Dominguez-Schatz
+ * Date: 2026-10-17
+ * Description: Implements a rule that finds the point of a convex shape furthest along a direction. This is all the
+ * GJK and EPA algorithms need to know about a shape, so any convex shape with a support rule can be tested.
+ */
+public interface SupportRule {
+
+    /**
+     * Finds the point of a body's shape furthest along a direction, in world coordinates.
+     *
+     * @param body the body to search
+     * @param directionX the x component of the direction; it need not be normalized
+     * @param directionY the y component of the direction; it need not be normalized
+     * @param point the array to write the point to, as {x, y}
+     */
+    void support(Body body, double directionX, double directionY, double[] point);
+}
@@ -0,0 +1,134 @@
+package julian.dominguezschatz.engine.models.rules.collision;
+
+import julian.dominguezschatz.engine.models.Body;
+
+/**
+ * Class: TimeOfImpactRule
+ * Author: Julian Dominguez-Schatz
+ * Date: 2026-10-17
+ * Description: Implements a rule that finds when a moving body first touches another body, using conservative
+ * advancement.
+ *
+ * The body is moved along its path in steps. Each step uses the GJK distance between the bodies and the speed at
+ * which the body closes that distance to find the furthest it can safely move. Since the distance between two
+ * convex shapes changes convexly as one of them translates, a step never passes the time of impact. The rotation of
+ * the body during the motion is ignored.
+ *
+ * Solution adapted from:
+ * https://box2d.org/files/ErinCatto_ContinuousCollision_GDC2013.pdf
+ */
+public class TimeOfImpactRule {
+
+    // returned when the body does not touch the other body during its motion
+    public static final double NO_IMPACT = -1;
+
+    // bounds on the work done for a single query
+    private static final int MAX_ITERATIONS = 32;
+
+    // the default distance at which bodies are considered to be touching
+    private static final double DEFAULT_TARGET_DISTANCE = 0.5;
+
+    // used to find the distance between the bodies
+    private final GJKCollisionRule distanceRule;
+
+    // the distance at which bodies are considered to be touching
+    private final double targetDistance;
+
+    // the unit direction from the other body to the moving body at the last impact found
+    private final double[] normal;
+
+    // default constructor
+    public TimeOfImpactRule() {
+        this(DEFAULT_TARGET_DISTANCE);
+    }
+
+    /**
+     * Constructor.
+     * @param targetDistance the distance at which bodies are considered to be touching
+     */
+    public TimeOfImpactRule(double targetDistance) {
+        if (targetDistance <= 0) {
+            throw new IllegalArgumentException("Target distance must be > 0!");
+        }
+
+        this.targetDistance = targetDistance;
+        distanceRule = new GJKCollisionRule();
+        normal = new double[2];
+    }
+
+    /**
+     * Finds the first time at which a body moving in a straight line touches another body, which is treated as
+     * stationary. The body must currently be at the end of its motion.
+     *
+     * @param body the moving body
+     * @param displacementX the x value of the motion of the body
+     * @param displacementY the y value of the motion of the body
+     * @param other the other body
+     * @return the fraction of the motion completed when the bodies first touch, or NO_IMPACT if they do not touch,
+     *         already overlap at the start of the motion, are not moving towards each other when they touch, or the
+     *         impact could not be found within the iteration limit
+     */
+    public double getTimeOfImpact(Body body, double displacementX, double displacementY, Body other) {
+        double time = 0;
+        double lastNormalX = 0;
+        double lastNormalY = 0;
+        for (int i = 0; i < MAX_ITERATIONS; i++) {
+            // the body is at the end of its motion, so it is offset backwards to the current time
+            double distance = distanceRule.distance(body, (time - 1) * displacementX, (time - 1) * displacementY,
+                    other, normal);
+            if (distance == 0) {
+                if (time == 0) {
+                    // the bodies overlap at the start, which the discrete test handles
+                    return NO_IMPACT;
+                }
+
+                // the last step went slightly too far, so the normal of the step before it is kept
+                normal[0] = lastNormalX;
+                normal[1] = lastNormalY;
+                return time;
+            }
+
+            // the speed at which the motion closes the distance between the bodies
+            double approach = -(displacementX * normal[0] + displacementY * normal[1]);
+            if (approach <= 0) {
+                // the body is moving away from or along the other body, so even a body already within the target
+                // distance is not hit
+                return NO_IMPACT;
+            }
+            if (distance <= targetDistance) {
+                return time;
+            }
+            lastNormalX = normal[0];
+            lastNormalY = normal[1];
+
+            // advance so that the bodies would end up halfway into the target distance
+            time += (distance - targetDistance / 2) / approach;
+            if (time >= 1) {
+                return NO_IMPACT;
+            }
+        }
+
+        // the advancement did not converge, so the time reached is not known to be an impact
+        return NO_IMPACT;
+    }
+
+    // getters
+
+    public double getTargetDistance() {
+        return targetDistance;
+    }
+
+    /**
+     * @return the x value of the unit direction from the other body to the moving body at the last impact found
+     */
+    public double getNormalX() {
+        return normal[0];
+    }
+
+    /**
+     * @return the y value of the unit direction from the other body to the moving body at the last impact found
+     */
+    public double getNormalY() {
+        return normal[1];
+    }
+}
@@ -1,7 +1,6 @@
 package julian.dominguezschatz.engine.models.rules.collision;
 
-import java.awt.geom.AffineTransform;
-import java.awt.geom.Point2D;
+import julian.dominguezschatz.engine.models.Body;
 
 /**
  * Assignment: Generic Object
@@ -12,5 +11,13 @@ import java.awt.geom.Point2D;
  */
 public interface VertexSelectionRule {
 
-    Point2D.Double closest(Point2D.Double point, AffineTransform transform);
+    /**
+     * Finds the vertex of a body's shape closest to a point.
+     *
+     * @param body the body to select a vertex from
+     * @param x the x value of the point
+     * @param y the y value of the point
+     * @param vertex the array to write the vertex to, as {x, y}
+     */
+    void closest(Body body, double x, double y, double[] vertex);
 }
@@ -0,0 +1,181 @@
+package julian.dominguezschatz.engine.models.rules.solver;
+
+import julian.dominguezschatz.engine.models.Body;
+import julian.dominguezschatz.engine.models.BodyPair;
+
+import java.util.Arrays;
+
+/**
+ * Class: GraphColoringRule
+ * Author: Julian Dominguez-Schatz
+ * Date: 2026-10-17
+ * Description: Implements a rule that colours the contact graph: each colliding pair is given a colour, so that no
+ * two pairs of the same colour share a dynamic body. The pairs of one colour can then be solved at once, on several
+ * threads, without any two threads changing the same body. Static bodies never change, so they are shared freely.
+ *
+ * Pairs are coloured greedily in order, each taking the lowest colour that neither of its bodies has been given
+ * yet. The colours of each body are kept as bits of a long, so there are at most MAX_COLORS colours; pairs that
+ * cannot be given one of those are placed in one last colour, whose pairs may share bodies and must be solved one
+ * after another. Once coloured, the pairs are sorted by colour with a counting sort, keeping their order within each
+ * colour, so that the colouring only depends on the order of the pairs.
+ *
+ * This rule keeps scratch buffers, so it is not thread-safe.
+ */
+public class GraphColoringRule {
+
+    // the number of colours whose pairs share no dynamic body
+    public static final int MAX_COLORS = Long.SIZE;
+
+    // the initial number of pairs and bodies to allocate space for
+    private static final int INITIAL_CAPACITY = 64;
+
+    // the colours given to the pairs of each body so far, as bits, indexed by the id of the body in its world
+    private long[] bodyColors;
+
+    // the number of pairs coloured
+    private int pairCount;
+
+    // the colour of each pair
+    private int[] pairColors;
+
+    // the indices of the pairs, sorted by colour
+    private int[] order;
+
+    // the number of colours used, including the last colour if any pair was placed in it
+    private int colorCount;
+
+    // the index in the sorted order at which each colour starts; the last used entry is the number of pairs
+    private final int[] colorStart;
+
+    // default constructor
+    public GraphColoringRule() {
+        bodyColors = new long[INITIAL_CAPACITY];
+        pairColors = new int[INITIAL_CAPACITY];
+        order = new int[INITIAL_CAPACITY];
+        colorStart = new int[MAX_COLORS + 2];
+    }
+
+    /**
+     * Colours a set of pairs, and sorts them by colour.
+     *
+     * @param pairs the colliding pairs
+     * @param pairCount the number of pairs to colour, starting from the first
+     */
+    public void color(BodyPair[] pairs, int pairCount) {
+        this.pairCount = pairCount;
+        if (pairCount > order.length) {
+            pairColors = new int[Math.max(pairCount, order.length * 2)];
+            order = new int[pairColors.length];
+        }
+
+        colorCount = 0;
+        for (int pair = 0; pair < pairCount; pair++) {
+            Body first = pairs[pair].getFirstBody();
+            Body second = pairs[pair].getSecondBody();
+
+            // the lowest colour that neither body has, or the last colour if they have every colour between them
+            long used = getColors(first) | getColors(second);
+            int color = used == -1L ? MAX_COLORS : Long.numberOfTrailingZeros(~used);
+            pairColors[pair] = color;
+            colorCount = Math.max(colorCount, color + 1);
+
+            if (color < MAX_COLORS) {
+                addColor(first, color);
+                addColor(second, color);
+            }
+        }
+
+        // the colours of the bodies are cleared, ready for the next set of pairs
+        for (int pair = 0; pair < pairCount; pair++) {
+            clearColors(pairs[pair].getFirstBody());
+            clearColors(pairs[pair].getSecondBody());
+        }
+
+        // count the pairs of each colour, then turn the counts into starting positions
+        Arrays.fill(colorStart, 0, colorCount + 1, 0);
+        for (int pair = 0; pair < pairCount; pair++) {
+            colorStart[pairColors[pair] + 1]++;
+        }
+        for (int color = 0; color < colorCount; color++) {
+            colorStart[color + 1] += colorStart[color];
+        }
+
+        // place each pair after the pairs of its colour placed so far, using the colour's start as a cursor, then
+        // move each start back, since each has been moved to the start of the next colour
+        for (int pair = 0; pair < pairCount; pair++) {
+            order[colorStart[pairColors[pair]]++] = pair;
+        }
+        System.arraycopy(colorStart, 0, colorStart, 1, colorCount);
+        colorStart[0] = 0;
+    }
+
+    private long getColors(Body body) {
+        if (body.isStatic()) {
+            return 0;
+        }
+
+        int id = body.getIDInWorld();
+        return id < bodyColors.length ? bodyColors[id] : 0;
+    }
+
+    private void addColor(Body body, int color) {
+        if (body.isStatic()) {
+            return;
+        }
+
+        int id = body.getIDInWorld();
+        if (id >= bodyColors.length) {
+            bodyColors = Arrays.copyOf(bodyColors, Math.max(id + 1, bodyColors.length * 2));
+        }
+        bodyColors[id] |= 1L << color;
+    }
+
+    private void clearColors(Body body) {
+        int id = body.getIDInWorld();
+        if (id < bodyColors.length) {
+            bodyColors[id] = 0;
+        }
+    }
+
+    // getters
+
+    public int getPairCount() {
+        return pairCount;
+    }
+
+    public int getColorCount() {
+        return colorCount;
+    }
+
+    /**
+     * @param color a colour
+     * @return whether the pairs of the colour may share bodies, and so must be solved one after another
+     */
+    public boolean isShared(int color) {
+        return color == MAX_COLORS;
+    }
+
+    /**
+     * @param position a position in the sorted order
+     * @return the index of the pair at that position
+     */
+    public int getOrderedPair(int position) {
+        return order[position];
+    }
+
+    /**
+     * @param color a colour
+     * @return the position in the sorted order at which the colour starts
+     */
+    public int getColorStart(int color) {
+        return colorStart[color];
+    }
+
+    /**
+     * @param color a colour
+     * @return the position in the sorted order one past the end of the colour
+     */
+    public int getColorEnd(int color) {
+        return colorStart[color + 1];
+    }
+}
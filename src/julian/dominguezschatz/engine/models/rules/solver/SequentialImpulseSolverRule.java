@@ -0,0 +1,611 @@
+package julian.dominguezschatz.engine.models.rules.solver;
+
+import julian.dominguezschatz.engine.models.Body;
+import julian.dominguezschatz.engine.models.BodyPair;
+import julian.dominguezschatz.engine.models.CollisionResult;
+import julian.dominguezschatz.engine.utils.Vector2D;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Class: SequentialImpulseSolverRule
+ * Author: Julian Dominguez-Schatz
+ * Date: 2026-10-17
+ * Description: Implements a rule that resolves contacts with sequential impulses. Every contact is solved in turn,
+ * several times over, so that the impulse applied at one contact can account for those applied at the others. The
+ * impulse accumulated at each contact is clamped so that contacts only ever push, and is kept from step to step so
+ * that the next step can start from it (warm starting). Together, these let stacks of bodies come to rest.
+ *
+ * Each impulse is applied at its contact point, so that it turns the bodies as well as pushing them, and the mass
+ * of each contact accounts for the moments of inertia of the bodies. A body resting on two contact points is then
+ * held up by both, rather than by their average. Friction is solved at each contact too, along the tangent, with
+ * its accumulated impulse limited by the normal impulse there; without it, bodies that turn even slightly push each
+ * other sideways, and nothing stops them from sliding apart.
+ *
+ * Speculative contacts, between bodies that are not touching yet, are solved the same way, except that the speed
+ * they are solved towards lets them close their gap over the next step but no more. They do not bounce, and since
+ * they do not overlap, they are never moved apart.
+ *
+ * Overlap is removed afterwards by moving the bodies apart directly, rather than by asking the contacts to separate
+ * faster. Otherwise, the speed added to separate the bodies would be accumulated and warm started along with the
+ * rest of the impulse, and stacks would bounce. The positions are corrected over the same number of iterations, with
+ * each contact's overlap estimated from how far its bodies have moved and turned since it was found. Each correction
+ * is applied at its contact point too, so a body resting unevenly is turned back flat as well as lifted.
+ *
+ * Each call to solve takes scratch buffers of its own, so several sets of pairs that share no dynamic body can be
+ * solved at once. The buffers belong to the call rather than the thread: a thread waiting for a task to finish may
+ * run another task in the meantime, which may solve another set of pairs before the first call is done.
+ *
+ * A single large island can also be spread across threads, if a pool is given. Its contact graph is coloured, so
+ * that the pairs of each colour share no dynamic body, and each iteration then solves the colours one after another,
+ * sharing the pairs of each colour between the threads of the pool. Solving by colour changes the order the
+ * contacts are solved in, so the result differs slightly from solving them in the order given, but it is the same
+ * whatever the number of threads.
+ *
+ * Solution adapted from:
+ * https://box2d.org/files/ErinCatto_SequentialImpulses_GDC2006.pdf
+ */
+public class SequentialImpulseSolverRule implements SolverRule {
+
+    // the number of times every contact is solved each step, unless another is given
+    public static final int DEFAULT_ITERATIONS = 8;
+
+    // the fraction of the overlap beyond the slop that is removed each step
+    private static final double CORRECTION_PERCENT = 0.4;
+
+    // the overlap that is allowed to remain, so that resting contacts stay touching from step to step
+    private static final double PENETRATION_SLOP = 0.05;
+
+    // closing speeds below this do not bounce, so that bodies resting on each other can settle
+    private static final double RESTITUTION_THRESHOLD = 1;
+
+    // the initial number of contacts to allocate space for
+    private static final int INITIAL_CAPACITY = 64;
+
+    // the number of pairs below which a set of pairs is solved without being coloured
+    private static final int MIN_COLORED_PAIRS = 256;
+
+    // the number of pairs of a colour below which they are solved by one task rather than split further
+    private static final int MIN_TASK_PAIRS = 32;
+
+    // the number of times every contact is solved each step
+    private int iterations;
+
+    // whether each step starts from the impulses accumulated during the last
+    private boolean warmStarting;
+
+    // the pool the colours of large sets of pairs are solved on, or null to solve every pair on the calling thread
+    private ForkJoinPool pool;
+
+    // the scratch buffers not taken by any call to solve; a call takes one, or makes one if there are none left
+    private final ConcurrentLinkedQueue<ContactBuffer> freeBuffers = new ConcurrentLinkedQueue<>();
+
+    // default constructor
+    public SequentialImpulseSolverRule() {
+        this(DEFAULT_ITERATIONS);
+    }
+
+    /**
+     * Constructor with a given number of iterations.
+     * @param iterations the number of times every contact is solved each step
+     */
+    public SequentialImpulseSolverRule(int iterations) {
+        setIterations(iterations);
+        warmStarting = true;
+    }
+
+    @Override
+    public void solve(BodyPair[] pairs, int start, int end, double deltaTime) {
+        ContactBuffer buffer = freeBuffers.poll();
+        if (buffer == null) {
+            buffer = new ContactBuffer();
+        }
+        prepare(buffer, pairs, start, end, deltaTime);
+
+        if (pool != null && buffer.correctedCount >= MIN_COLORED_PAIRS) {
+            solveColored(buffer);
+        } else {
+            for (int iteration = 0; iteration < iterations; iteration++) {
+                for (int contact = 0; contact < buffer.contactCount; contact++) {
+                    solveContact(buffer, contact);
+                }
+            }
+
+            for (int iteration = 0; iteration < iterations; iteration++) {
+                for (int contact = 0; contact < buffer.contactCount; contact++) {
+                    correctPositions(buffer, contact);
+                }
+            }
+        }
+
+        buffer.clear();
+        freeBuffers.offer(buffer);
+    }
+
+    /**
+     * Gathers the contacts of the pairs, works out what each needs before it is solved, and applies the impulses
+     * accumulated during the last step. Every contact's bounce is worked out before any impulse is applied, so that
+     * it depends on the velocities the bodies arrived with rather than on the order of the pairs.
+     *
+     * @param buffer the buffer to gather the contacts into
+     * @param pairs the colliding pairs
+     * @param start the index of the first pair to solve
+     * @param end the index one past the last pair to solve
+     * @param deltaTime the duration of the next step in milliseconds
+     */
+    private void prepare(ContactBuffer buffer, BodyPair[] pairs, int start, int end, double deltaTime) {
+        int capacity = 0;
+        for (int i = start; i < end; i++) {
+            capacity += pairs[i].getResult().getContactCount();
+        }
+        buffer.ensureCapacity(capacity, end - start);
+
+        for (int i = start; i < end; i++) {
+            BodyPair pair = pairs[i];
+            Body first = pair.getFirstBody();
+            Body second = pair.getSecondBody();
+            CollisionResult result = pair.getResult();
+
+            double reciprocalMassSum = first.getReciprocalMass() + second.getReciprocalMass();
+            if (reciprocalMassSum == 0) {
+                continue;
+            }
+            double firstCenterX = first.getCenterOfMassX();
+            double firstCenterY = first.getCenterOfMassY();
+            double secondCenterX = second.getCenterOfMassX();
+            double secondCenterY = second.getCenterOfMassY();
+
+            int corrected = buffer.correctedCount++;
+            buffer.correctedPairs[corrected] = pair;
+            buffer.pairContactStart[corrected] = buffer.contactCount;
+
+            // get lowest elasticity
+            double restitution = Math.min(first.getCollider().getMaterial().getRestitution(),
+                    second.getCollider().getMaterial().getRestitution());
+            double friction = Math.sqrt(first.getCollider().getMaterial().getFriction()
+                    * second.getCollider().getMaterial().getFriction());
+            double tangentX = -result.getNormalY();
+            double tangentY = result.getNormalX();
+
+            for (int j = 0; j < result.getContactCount(); j++) {
+                int contact = buffer.contactCount++;
+                buffer.contactPairs[contact] = pair;
+                buffer.contactIndices[contact] = j;
+
+                double firstOffsetX = result.getContactX(j) - firstCenterX;
+                double firstOffsetY = result.getContactY(j) - firstCenterY;
+                double secondOffsetX = result.getContactX(j) - secondCenterX;
+                double secondOffsetY = result.getContactY(j) - secondCenterY;
+                buffer.firstOffsetsX[contact] = firstOffsetX;
+                buffer.firstOffsetsY[contact] = firstOffsetY;
+                buffer.secondOffsetsX[contact] = secondOffsetX;
+                buffer.secondOffsetsY[contact] = secondOffsetY;
+                buffer.initialSeparations[contact] = getSeparation(buffer, contact, first, second, result);
+
+                // an impulse away from the center of mass also turns the body, which makes the contact lighter
+                double firstArm = firstOffsetX * result.getNormalY() - firstOffsetY * result.getNormalX();
+                double secondArm = secondOffsetX * result.getNormalY() - secondOffsetY * result.getNormalX();
+                buffer.normalMasses[contact] = 1 / (reciprocalMassSum
+                        + first.getReciprocalInertia() * firstArm * firstArm
+                        + second.getReciprocalInertia() * secondArm * secondArm);
+
+                double firstTangentArm = firstOffsetX * tangentY - firstOffsetY * tangentX;
+                double secondTangentArm = secondOffsetX * tangentY - secondOffsetY * tangentX;
+                buffer.tangentMasses[contact] = 1 / (reciprocalMassSum
+                        + first.getReciprocalInertia() * firstTangentArm * firstTangentArm
+                        + second.getReciprocalInertia() * secondTangentArm * secondTangentArm);
+                buffer.frictions[contact] = friction;
+
+                // a speculative contact may close its gap over the next step, but no more; it has not touched yet,
+                // so it does not bounce
+                double depth = result.getContactDepth(j);
+                if (depth < 0) {
+                    buffer.velocityBiases[contact] = depth / (deltaTime / 1000.0);
+                    continue;
+                }
+
+                // only contacts that are closing fast enough bounce
+                double velocityAlongNormal = getRelativeVelocity(buffer, contact, first, second,
+                        result.getNormalX(), result.getNormalY());
+                buffer.velocityBiases[contact] = velocityAlongNormal < -RESTITUTION_THRESHOLD
+                        ? -restitution * velocityAlongNormal : 0;
+            }
+        }
+        buffer.pairContactStart[buffer.correctedCount] = buffer.contactCount;
+
+        for (int contact = 0; contact < buffer.contactCount; contact++) {
+            BodyPair pair = buffer.contactPairs[contact];
+            int index = buffer.contactIndices[contact];
+            if (warmStarting) {
+                applyImpulse(buffer, contact, pair.getFirstBody(), pair.getSecondBody(), pair.getResult(),
+                        pair.getNormalImpulse(index), pair.getTangentImpulse(index));
+            } else {
+                pair.setNormalImpulse(index, 0);
+                pair.setTangentImpulse(index, 0);
+            }
+        }
+    }
+
+    /**
+     * Colours the pairs of a buffer, then solves them colour by colour, sharing the pairs of each colour between the
+     * threads of the pool.
+     * @param buffer the buffer holding the pairs
+     */
+    private void solveColored(ContactBuffer buffer) {
+        GraphColoringRule coloringRule = buffer.coloringRule;
+        coloringRule.color(buffer.correctedPairs, buffer.correctedCount);
+
+        for (int iteration = 0; iteration < iterations; iteration++) {
+            for (int color = 0; color < coloringRule.getColorCount(); color++) {
+                solveColor(buffer, color, false);
+            }
+        }
+
+        for (int iteration = 0; iteration < iterations; iteration++) {
+            for (int color = 0; color < coloringRule.getColorCount(); color++) {
+                solveColor(buffer, color, true);
+            }
+        }
+    }
+
+    /**
+     * Solves the pairs of a single colour, on the pool if there are enough of them.
+     *
+     * @param buffer the buffer holding the pairs
+     * @param color the colour
+     * @param positions whether to correct the positions of the pairs, rather than their velocities
+     */
+    private void solveColor(ContactBuffer buffer, int color, boolean positions) {
+        GraphColoringRule coloringRule = buffer.coloringRule;
+        int start = coloringRule.getColorStart(color);
+        int end = coloringRule.getColorEnd(color);
+
+        // the pairs of the last colour may share bodies, so they are solved one after another
+        if (coloringRule.isShared(color) || end - start <= MIN_TASK_PAIRS) {
+            solvePairs(buffer, start, end, positions);
+            return;
+        }
+
+        SolveColorTask task = new SolveColorTask(buffer, start, end, positions);
+        if (ForkJoinTask.inForkJoinPool()) {
+            task.invoke();
+        } else {
+            pool.invoke(task);
+        }
+    }
+
+    /**
+     * Solves a range of the pairs of a buffer, in the order given by its colouring.
+     *
+     * @param buffer the buffer holding the pairs
+     * @param start the first position in the colouring's order to solve
+     * @param end the position one past the last to solve
+     * @param positions whether to correct the positions of the pairs, rather than their velocities
+     */
+    private static void solvePairs(ContactBuffer buffer, int start, int end, boolean positions) {
+        for (int position = start; position < end; position++) {
+            int pair = buffer.coloringRule.getOrderedPair(position);
+            for (int contact = buffer.pairContactStart[pair]; contact < buffer.pairContactStart[pair + 1]; contact++) {
+                if (positions) {
+                    correctPositions(buffer, contact);
+                } else {
+                    solveContact(buffer, contact);
+                }
+            }
+        }
+    }
+
+    /**
+     * Solves a range of the pairs of one colour, splitting it in two while it is large enough to be worth sharing
+     * between threads.
+     */
+    private static class SolveColorTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        // the buffer holding the pairs
+        private final ContactBuffer buffer;
+
+        // the first position in the colouring's order to solve, and the position one past the last
+        private final int start;
+        private final int end;
+
+        // whether to correct the positions of the pairs, rather than their velocities
+        private final boolean positions;
+
+        /**
+         * Default constructor.
+         * @param buffer the buffer holding the pairs
+         * @param start the first position in the colouring's order to solve
+         * @param end the position one past the last to solve
+         * @param positions whether to correct the positions of the pairs, rather than their velocities
+         */
+        private SolveColorTask(ContactBuffer buffer, int start, int end, boolean positions) {
+            this.buffer = buffer;
+            this.start = start;
+            this.end = end;
+            this.positions = positions;
+        }
+
+        @Override
+        protected void compute() {
+            if (end - start <= MIN_TASK_PAIRS) {
+                solvePairs(buffer, start, end, positions);
+                return;
+            }
+
+            int middle = (start + end) >>> 1;
+            invokeAll(new SolveColorTask(buffer, start, middle, positions),
+                    new SolveColorTask(buffer, middle, end, positions));
+        }
+    }
+
+    /**
+     * Solves a single contact, given the impulses applied at every other contact so far.
+     * @param buffer the buffer holding the contact
+     * @param contact the index of the contact
+     */
+    private static void solveContact(ContactBuffer buffer, int contact) {
+        BodyPair pair = buffer.contactPairs[contact];
+        int index = buffer.contactIndices[contact];
+        Body first = pair.getFirstBody();
+        Body second = pair.getSecondBody();
+        CollisionResult result = pair.getResult();
+
+        // friction is solved first, so that the normal impulse, which matters more, is solved last
+        double velocityAlongTangent = getRelativeVelocity(buffer, contact, first, second,
+                -result.getNormalY(), result.getNormalX());
+        double tangentImpulse = -buffer.tangentMasses[contact] * velocityAlongTangent;
+
+        // friction can hold the bodies back no harder than they are pressed together
+        double maxFriction = buffer.frictions[contact] * pair.getNormalImpulse(index);
+        double accumulatedTangent = pair.getTangentImpulse(index);
+        double clampedTangent = Math.max(-maxFriction, Math.min(accumulatedTangent + tangentImpulse, maxFriction));
+        pair.setTangentImpulse(index, clampedTangent);
+        applyImpulse(buffer, contact, first, second, result, 0, clampedTangent - accumulatedTangent);
+
+        double velocityAlongNormal = getRelativeVelocity(buffer, contact, first, second,
+                result.getNormalX(), result.getNormalY());
+        double impulse = buffer.normalMasses[contact] * (buffer.velocityBiases[contact] - velocityAlongNormal);
+
+        // the total impulse at a contact can only push the bodies apart, never pull them together
+        double accumulated = pair.getNormalImpulse(index);
+        double clamped = Math.max(accumulated + impulse, 0);
+        pair.setNormalImpulse(index, clamped);
+        applyImpulse(buffer, contact, first, second, result, clamped - accumulated, 0);
+    }
+
+    /**
+     * Moves the bodies of a contact apart by part of its overlap, in proportion to their reciprocal masses, turning
+     * them about the contact point as an impulse there would.
+     * @param buffer the buffer holding the contact
+     * @param contact the index of the contact
+     */
+    private static void correctPositions(ContactBuffer buffer, int contact) {
+        BodyPair pair = buffer.contactPairs[contact];
+        Body first = pair.getFirstBody();
+        Body second = pair.getSecondBody();
+        CollisionResult result = pair.getResult();
+
+        // the overlap shrinks by however far the bodies have already been moved apart at the contact
+        double separation = getSeparation(buffer, contact, first, second, result);
+        double depth = result.getContactDepth(buffer.contactIndices[contact])
+                - (separation - buffer.initialSeparations[contact]);
+        double correction = CORRECTION_PERCENT * Math.max(0, depth - PENETRATION_SLOP) * buffer.normalMasses[contact];
+        if (correction == 0) {
+            return;
+        }
+
+        double correctionX = correction * result.getNormalX();
+        double correctionY = correction * result.getNormalY();
+        move(first, correctionX, correctionY, buffer.firstOffsetsX[contact], buffer.firstOffsetsY[contact]);
+        move(second, -correctionX, -correctionY, buffer.secondOffsetsX[contact], buffer.secondOffsetsY[contact]);
+    }
+
+    /**
+     * Moves and turns a body by a correction applied at a point, in the same proportions as an impulse there would
+     * change its velocity and angular velocity. Static bodies are shared between islands, so they are never written
+     * to, even to add nothing.
+     */
+    private static void move(Body body, double correctionX, double correctionY, double offsetX, double offsetY) {
+        if (body.isStatic()) {
+            return;
+        }
+
+        body.translate(correctionX * body.getReciprocalMass(), correctionY * body.getReciprocalMass());
+        body.rotate(Math.toDegrees(body.getReciprocalInertia() * (offsetX * correctionY - offsetY * correctionX)));
+    }
+
+    /**
+     * Estimates the distance between the points of the bodies at a contact along the normal of a result, up to a
+     * constant. Turning is only accounted for to first order, which is enough for the small corrections made.
+     *
+     * @return the separation, which is only meaningful when compared with the separation of the same contact
+     */
+    private static double getSeparation(ContactBuffer buffer, int contact, Body first, Body second,
+                                        CollisionResult result) {
+        double firstAngle = first.getAngleRadians();
+        double secondAngle = second.getAngleRadians();
+        double separationX = first.getCenterOfMassX() - firstAngle * buffer.firstOffsetsY[contact]
+                - second.getCenterOfMassX() + secondAngle * buffer.secondOffsetsY[contact];
+        double separationY = first.getCenterOfMassY() + firstAngle * buffer.firstOffsetsX[contact]
+                - second.getCenterOfMassY() - secondAngle * buffer.secondOffsetsX[contact];
+        return separationX * result.getNormalX() + separationY * result.getNormalY();
+    }
+
+    /**
+     * @return the speed of the point of the first body at a contact relative to that of the second along a
+     *         direction, including the speed due to the bodies turning
+     */
+    private static double getRelativeVelocity(ContactBuffer buffer, int contact, Body first, Body second,
+                                              double directionX, double directionY) {
+        Vector2D firstVelocity = first.getVelocity();
+        Vector2D secondVelocity = second.getVelocity();
+        double firstSpin = Math.toRadians(first.getAngularVelocity());
+        double secondSpin = Math.toRadians(second.getAngularVelocity());
+
+        double relativeX = firstVelocity.getX() - firstSpin * buffer.firstOffsetsY[contact]
+                - secondVelocity.getX() + secondSpin * buffer.secondOffsetsY[contact];
+        double relativeY = firstVelocity.getY() + firstSpin * buffer.firstOffsetsX[contact]
+                - secondVelocity.getY() - secondSpin * buffer.secondOffsetsX[contact];
+        return relativeX * directionX + relativeY * directionY;
+    }
+
+    /**
+     * Applies an impulse at a contact point to the first body, and the opposite impulse to the second. The impulse
+     * is given along the normal of a result, which pushes the first body away from the second, and along its
+     * tangent.
+     */
+    private static void applyImpulse(ContactBuffer buffer, int contact, Body first, Body second,
+                                     CollisionResult result, double normalImpulse, double tangentImpulse) {
+        if (normalImpulse == 0 && tangentImpulse == 0) {
+            return;
+        }
+
+        double impulseX = normalImpulse * result.getNormalX() - tangentImpulse * result.getNormalY();
+        double impulseY = normalImpulse * result.getNormalY() + tangentImpulse * result.getNormalX();
+        first.applyImpulse(impulseX, impulseY, buffer.firstOffsetsX[contact], buffer.firstOffsetsY[contact]);
+        second.applyImpulse(-impulseX, -impulseY, buffer.secondOffsetsX[contact], buffer.secondOffsetsY[contact]);
+    }
+
+    // getters
+
+    public int getIterations() {
+        return iterations;
+    }
+
+    public boolean isWarmStarting() {
+        return warmStarting;
+    }
+
+    public ForkJoinPool getPool() {
+        return pool;
+    }
+
+    // setters
+
+    /**
+     * Changes the number of times every contact is solved each step. More iterations give stiffer stacks, at a
+     * cost proportional to the number of contacts.
+     * @param iterations the number of iterations, which must be positive
+     */
+    public void setIterations(int iterations) {
+        if (iterations < 1) {
+            throw new IllegalArgumentException("Solver iterations must be positive!");
+        }
+        this.iterations = iterations;
+    }
+
+    /**
+     * Enables or disables warm starting. Without it, every step starts from no impulse, and stacks need more
+     * iterations to hold up.
+     * @param warmStarting whether each step starts from the impulses accumulated during the last
+     */
+    public void setWarmStarting(boolean warmStarting) {
+        this.warmStarting = warmStarting;
+    }
+
+    /**
+     * Changes the pool that large sets of pairs, such as a single large island, are solved on. With a pool, such
+     * sets are coloured and each colour is shared between the threads of the pool; without one, every pair is solved
+     * on the calling thread, in the order given.
+     * @param pool the pool to solve on, or null to solve on the calling thread
+     */
+    public void setPool(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Holds the contacts being solved by one thread.
+     */
+    private static class ContactBuffer {
+
+        // the number of contacts being solved
+        private int contactCount;
+
+        // the pair of each contact, and the index of the contact within the pair's result
+        private BodyPair[] contactPairs;
+        private int[] contactIndices;
+
+        // the offset of each contact from the center of mass of each of its bodies
+        private double[] firstOffsetsX;
+        private double[] firstOffsetsY;
+        private double[] secondOffsetsX;
+        private double[] secondOffsetsY;
+
+        // the mass of each contact along its normal, and the separating speed the contact is solved towards; for
+        // speculative contacts, this is negative, and is the fastest the contact may close
+        private double[] normalMasses;
+        private double[] velocityBiases;
+
+        // the mass of each contact along its tangent, and the coefficient of friction between its bodies
+        private double[] tangentMasses;
+        private double[] frictions;
+
+        // the separation of the bodies at each contact when it was found, as estimated by getSeparation
+        private double[] initialSeparations;
+
+        // the colliding pairs whose contacts are solved, and the index of the first contact of each; the last used
+        // contact start is the number of contacts
+        private int correctedCount;
+        private BodyPair[] correctedPairs;
+        private int[] pairContactStart;
+
+        // colours the pairs, when they are shared between threads
+        private final GraphColoringRule coloringRule;
+
+        // default constructor
+        private ContactBuffer() {
+            allocateContacts(INITIAL_CAPACITY);
+            allocatePairs(INITIAL_CAPACITY);
+            coloringRule = new GraphColoringRule();
+        }
+
+        private void allocateContacts(int capacity) {
+            contactPairs = new BodyPair[capacity];
+            contactIndices = new int[capacity];
+            firstOffsetsX = new double[capacity];
+            firstOffsetsY = new double[capacity];
+            secondOffsetsX = new double[capacity];
+            secondOffsetsY = new double[capacity];
+            normalMasses = new double[capacity];
+            velocityBiases = new double[capacity];
+            tangentMasses = new double[capacity];
+            frictions = new double[capacity];
+            initialSeparations = new double[capacity];
+        }
+
+        private void allocatePairs(int capacity) {
+            correctedPairs = new BodyPair[capacity];
+            pairContactStart = new int[capacity + 1];
+        }
+
+        /**
+         * Makes sure that the buffer has room for a number of contacts and pairs.
+         * @param contactCapacity the number of contacts
+         * @param pairCapacity the number of pairs
+         */
+        private void ensureCapacity(int contactCapacity, int pairCapacity) {
+            if (contactCapacity > contactPairs.length) {
+                allocateContacts(Math.max(contactCapacity, contactPairs.length * 2));
+            }
+            if (pairCapacity > correctedPairs.length) {
+                allocatePairs(Math.max(pairCapacity, correctedPairs.length * 2));
+            }
+        }
+
+        /**
+         * Releases the pairs held by the buffer, so that they can be recycled by their table.
+         */
+        private void clear() {
+            Arrays.fill(contactPairs, 0, contactCount, null);
+            Arrays.fill(correctedPairs, 0, correctedCount, null);
+            contactCount = 0;
+            correctedCount = 0;
+        }
+    }
+}
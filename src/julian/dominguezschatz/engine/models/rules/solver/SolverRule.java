@@ -0,0 +1,32 @@
+package julian.dominguezschatz.engine.models.rules.solver;
+
+import julian.dominguezschatz.engine.models.BodyPair;
+
+/**
+ * Class: SolverRule
+ * Author: Julian Dominguez-Schatz
+ * Date: 2026-10-17
+ * Description: Represents a rule that resolves the contacts found during a step all together, once collision
+ * detection has finished, rather than resolving each pair as soon as it is found.
+ *
+ * Children of this class are rule objects (part of the model).
+ */
+public interface SolverRule {
+
+    /**
+     * Changes the velocities and positions of the bodies of a range of the colliding pairs found this step, so that
+     * they stop moving into each other and no longer overlap. Ranges that share no dynamic body, such as different
+     * islands, may be solved on several threads at once, and are solved exactly as if they were solved one after
+     * another.
+     *
+     * Pairs may also hold speculative contacts, with negative depths, between bodies that are not touching yet but
+     * will be during the next step. Such contacts only stop the bodies from closing more than their gap then.
+     *
+     * @param pairs the colliding pairs, whose results hold this step's contacts
+     * @param start the index of the first pair to solve
+     * @param end the index one past the last pair to solve
+     * @param deltaTime the duration of the next step in milliseconds, over which speculative contacts may close
+     */
+    void solve(BodyPair[] pairs, int start, int end, double deltaTime);
+
+}
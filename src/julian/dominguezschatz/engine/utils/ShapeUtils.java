@@ -0,0 +1,86 @@
+package julian.dominguezschatz.engine.utils;
+
+import java.awt.Shape;
+import java.awt.geom.PathIterator;
+import java.util.Arrays;
+
+/**
+ * Class: ShapeUtils
+ * Author: Julian Dominguez-Schatz
+ * Date: 2026-10-17
+ * Description: Provides utilities for working with shapes.
+ */
+public class ShapeUtils {
+
+    /**
+     * Flattens the vertices of a polygonal shape into an array of the form {x0, y0, x1, y1, ...}. Repeated
+     * vertices, including a final vertex that closes the shape by returning to the first, are skipped.
+     *
+     * @param shape the polygonal shape
+     * @return the packed vertices of the shape, in local coordinates
+     */
+    public static double[] getPolygonVertices(Shape shape) {
+        double[] vertices = new double[16];
+        int length = 0;
+
+        double[] vertex = new double[6];
+        for (PathIterator iterator = shape.getPathIterator(null); !iterator.isDone(); iterator.next()) {
+            int type = iterator.currentSegment(vertex);
+
+            // if the shape is closing, ignore the segment
+            if (type == PathIterator.SEG_CLOSE) {
+                continue;
+            }
+
+            if (length > 0 && vertices[length - 2] == vertex[0] && vertices[length - 1] == vertex[1]) {
+                continue;
+            }
+
+            if (length == vertices.length) {
+                vertices = Arrays.copyOf(vertices, length * 2);
+            }
+            vertices[length++] = vertex[0];
+            vertices[length++] = vertex[1];
+        }
+
+        if (length > 2 && vertices[0] == vertices[length - 2] && vertices[1] == vertices[length - 1]) {
+            length -= 2;
+        }
+        return Arrays.copyOf(vertices, length);
+    }
+
+    /**
+     * Determines the outward unit normal of each edge of a polygon. The normal at index i belongs to the edge from
+     * vertex i to vertex i + 1, wrapping around to the first vertex.
+     *
+     * @param vertices the packed vertices of the polygon, as returned by getPolygonVertices
+     * @return the packed normals of the polygon, in the same form as the vertices
+     */
+    public static double[] getPolygonNormals(double[] vertices) {
+        int count = vertices.length / 2;
+        double[] normals = new double[vertices.length];
+
+        // the sign of the area tells which side of each edge is outside
+        double area = 0;
+        for (int i = 0; i < count; i++) {
+            int next = (i + 1) % count;
+            area += vertices[i * 2] * vertices[next * 2 + 1] - vertices[next * 2] * vertices[i * 2 + 1];
+        }
+        double sign = area < 0 ? -1 : 1;
+
+        for (int i = 0; i < count; i++) {
+            int next = (i + 1) % count;
+            double edgeX = vertices[next * 2] - vertices[i * 2];
+            double edgeY = vertices[next * 2 + 1] - vertices[i * 2 + 1];
+            double length = Math.sqrt(edgeX * edgeX + edgeY * edgeY);
+            if (length == 0) {
+                normals[i * 2] = 1;
+                normals[i * 2 + 1] = 0;
+            } else {
+                normals[i * 2] = sign * edgeY / length;
+                normals[i * 2 + 1] = -sign * edgeX / length;
+            }
+        }
+        return normals;
+    }
+}
@@ -1,7 +1,7 @@
 package julian.dominguezschatz.engine.views;
 
 import java.awt.Graphics2D;
-import java.awt.geom.Path2D;
+import java.awt.Shape;
 
 /**
  * Class: PolygonRenderer
@@ -12,14 +12,14 @@ import java.awt.geom.Path2D;
 public class PolygonRenderer extends ShapeRenderer {
 
     // the shape this renderer targets
-    private Path2D.Double renderShape;
+    private Shape renderShape;
 
     /**
      * Constructor.
      *
-     * @param renderShape the shape this renderer targets
+     * @param renderShape the shape this renderer targets, which may be any shape made of straight edges
      */
-    public PolygonRenderer(Path2D.Double renderShape) {
+    public PolygonRenderer(Shape renderShape) {
         this.renderShape = renderShape;
     }
 
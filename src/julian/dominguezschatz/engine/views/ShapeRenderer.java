@@ -30,8 +30,9 @@ public abstract class ShapeRenderer extends Renderer {
             return new PolygonRenderer((Path2D.Double) shape);
         }
 
+        // rectangles are filled directly, rather than being copied into a path for every body
         if (shape instanceof Rectangle2D) {
-            return new PolygonRenderer(new Path2D.Double(shape));
+            return new PolygonRenderer(shape);
         }
 
         throw new IllegalArgumentException("Unknown shape type!");